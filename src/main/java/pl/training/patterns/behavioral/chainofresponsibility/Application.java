@@ -1,5 +1,7 @@
 package pl.training.patterns.behavioral.chainofresponsibility;
 
+import java.util.List;
+
 public class Application {
 
     public static void main(String[] args) {
@@ -8,6 +10,10 @@ public class Application {
 
 
         new Thread();
+
+        var batchChain = new BatchChain(chain);
+        var handled = batchChain.handleRequests(List.of("Test", "ab", "Batch", "x", "Request"));
+        System.out.println("Handled: " + handled);
     }
 
 }
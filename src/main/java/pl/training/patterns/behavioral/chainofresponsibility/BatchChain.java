@@ -0,0 +1,53 @@
+package pl.training.patterns.behavioral.chainofresponsibility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+// runs a whole batch through one stage before moving to the next one, each stage handles
+// the requests in parallel and only the requests accepted by a stage reach the following one
+public class BatchChain {
+
+    private final Handler[] stages;
+    private final ForkJoinPool pool;
+
+    public BatchChain(Handler chain, ForkJoinPool pool) {
+        var stages = new ArrayList<Handler>();
+        for (var handler = chain; handler != null; handler = handler.nextHandler) {
+            stages.add(handler);
+        }
+        this.stages = stages.toArray(Handler[]::new);
+        this.pool = pool;
+    }
+
+    public BatchChain(Handler chain) {
+        this(chain, ForkJoinPool.commonPool());
+    }
+
+    public List<String> handleRequests(List<String> requests) {
+        var batch = requests;
+        for (var stage : stages) {
+            if (batch.isEmpty()) {
+                break;
+            }
+            batch = handle(stage, batch);
+        }
+        return batch;
+    }
+
+    private List<String> handle(Handler stage, List<String> batch) {
+        try {
+            return pool.submit(() -> batch.parallelStream()
+                            .filter(stage::handle)
+                            .toList())
+                    .get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException(exception.getCause());
+        }
+    }
+
+}
@@ -4,6 +4,18 @@ public abstract class Handler {
 
     protected Handler nextHandler;
 
-    public abstract void handleRequest(String request);
+    public void handleRequest(String request) {
+        var handler = this;
+        while (handler != null && handler.handle(request)) {
+            handler = handler.nextHandler;
+        }
+    }
+
+    // handles the request at this stage only, returns false when the request should not go further down the chain;
+    // a handler that only overrides handleRequest passes the request on by itself, so it is run as the last stage
+    protected boolean handle(String request) {
+        handleRequest(request);
+        return false;
+    }
 
 }
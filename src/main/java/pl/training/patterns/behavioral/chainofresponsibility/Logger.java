@@ -10,9 +10,9 @@ public class Logger extends Handler {
     }
 
     @Override
-    public void handleRequest(String request) {
+    protected boolean handle(String request) {
         log.info(request);
-        nextHandler.handleRequest(request);
+        return true;
     }
 
 }
@@ -6,8 +6,9 @@ import lombok.extern.java.Log;
 public class Processor extends Handler {
 
     @Override
-    public void handleRequest(String request) {
+    protected boolean handle(String request) {
         log.info("Processing: " + request);
+        return true;
     }
 
 }
@@ -7,11 +7,8 @@ public class Validator extends Handler {
     }
 
     @Override
-    public void handleRequest(String request) {
-        if (request.length() < 3) {
-            return;
-        }
-        nextHandler.handleRequest(request);
+    protected boolean handle(String request) {
+        return request.length() >= 3;
     }
 
 }
@@ -1,11 +1,22 @@
 package pl.training.patterns.behavioral.comman;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
 public class Application {
 
     public static void main(String[] args) {
         var invoker = new Invoker();
         invoker.invoke(new PrintTime());
         invoker.invoke(new ConnectTopServer());
+
+        try (var executor = CommandExecutor.virtualThreads(100)) {
+            invoker.register(new PrintTime());
+            invoker.register(new ConnectTopServer());
+            var registered = invoker.invokeAll(executor, Priority.NORMAL);
+            var urgent = executor.submit(new PrintTime(), Priority.HIGH, Duration.ofSeconds(1));
+            CompletableFuture.allOf(registered, urgent).join();
+        }
     }
 
 }
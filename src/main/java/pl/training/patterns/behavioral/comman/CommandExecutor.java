@@ -0,0 +1,191 @@
+package pl.training.patterns.behavioral.comman;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// every priority has its own lock-free queue, workers always take from the highest non-empty one
+public class CommandExecutor implements AutoCloseable {
+
+    private final Queue<Task>[] queues;
+    private final Semaphore pending = new Semaphore(0);
+    private final ExecutorService executor;
+    private volatile boolean closed;
+
+    @SuppressWarnings("unchecked")
+    private CommandExecutor(ExecutorService executor, int workers) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Workers count must be positive");
+        }
+        this.executor = executor;
+        this.queues = new Queue[Priority.values().length];
+        for (int index = 0; index < queues.length; index++) {
+            queues[index] = new ConcurrentLinkedQueue<>();
+        }
+        for (int worker = 0; worker < workers; worker++) {
+            executor.execute(this::work);
+        }
+    }
+
+    public static CommandExecutor platformThreads(int workers) {
+        return new CommandExecutor(Executors.newFixedThreadPool(workers), workers);
+    }
+
+    // with virtual threads the workers count only limits how many commands may block at the same time
+    public static CommandExecutor virtualThreads(int maxConcurrentCommands) {
+        return new CommandExecutor(Executors.newVirtualThreadPerTaskExecutor(), maxConcurrentCommands);
+    }
+
+    public CompletableFuture<Void> submit(Command command) {
+        return submit(command, Priority.NORMAL);
+    }
+
+    public CompletableFuture<Void> submit(Command command, Priority priority) {
+        var task = enqueue(command, priority);
+        pending.release();
+        return task.future;
+    }
+
+    public CompletableFuture<Void> submit(Command command, Priority priority, Duration timeout) {
+        var future = submit(command, priority);
+        return future.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    // the whole batch is queued first and workers are woken up once, not once per command
+    public CompletableFuture<Void> submitAll(Collection<? extends Command> commands, Priority priority) {
+        var futures = new CompletableFuture<?>[commands.size()];
+        var index = 0;
+        for (var command : commands) {
+            futures[index++] = enqueue(command, priority).future;
+        }
+        pending.release(futures.length);
+        return CompletableFuture.allOf(futures);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        executor.shutdownNow();
+        for (var queue : queues) {
+            Task task;
+            while ((task = queue.poll()) != null) {
+                task.future.completeExceptionally(new CancellationException("Command executor closed"));
+            }
+        }
+    }
+
+    // a task queued while close() drains the queues takes itself back out, so no future is left incomplete
+    private Task enqueue(Command command, Priority priority) {
+        if (closed) {
+            throw new RejectedExecutionException("Command executor closed");
+        }
+        var task = new Task(command);
+        var queue = queues[priority.ordinal()];
+        queue.add(task);
+        if (closed && queue.remove(task)) {
+            task.future.completeExceptionally(new CancellationException("Command executor closed"));
+        }
+        return task;
+    }
+
+    // a stray interrupt never ends a worker, only close() does
+    private void work() {
+        while (!closed) {
+            try {
+                pending.acquire();
+            } catch (InterruptedException exception) {
+                continue;
+            }
+            run(nextTask());
+        }
+    }
+
+    // a permit guarantees a queued task, but another worker may take it from a queue checked first
+    private Task nextTask() {
+        while (!closed) {
+            for (var queue : queues) {
+                var task = queue.poll();
+                if (task != null) {
+                    return task;
+                }
+            }
+            Thread.onSpinWait();
+        }
+        return null;
+    }
+
+    private void run(Task task) {
+        if (task == null || task.future.isDone() || !task.start()) {
+            return;
+        }
+        try {
+            task.command.execute();
+            task.future.complete(null);
+        } catch (Throwable throwable) {
+            task.future.completeExceptionally(throwable);
+        } finally {
+            task.finish();
+        }
+    }
+
+    // a command that times out while running is interrupted, one still queued is skipped; the state
+    // makes sure the interrupt reaches the command it was meant for and never the next one on that worker
+    private static class Task {
+
+        private static final int QUEUED = 0;
+        private static final int RUNNING = 1;
+        private static final int INTERRUPTING = 2;
+        private static final int FINISHED = 3;
+
+        private final Command command;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+        private volatile Thread runner;
+
+        Task(Command command) {
+            this.command = command;
+            future.whenComplete((result, throwable) -> {
+                if (throwable instanceof TimeoutException) {
+                    interruptIfRunning();
+                }
+            });
+        }
+
+        boolean start() {
+            runner = Thread.currentThread();
+            return state.compareAndSet(QUEUED, RUNNING);
+        }
+
+        // an interrupt already on its way is waited for and cleared before the worker moves on
+        void finish() {
+            if (!state.compareAndSet(RUNNING, FINISHED)) {
+                while (state.get() == INTERRUPTING) {
+                    Thread.onSpinWait();
+                }
+                Thread.interrupted();
+            }
+        }
+
+        private void interruptIfRunning() {
+            if (state.compareAndSet(QUEUED, FINISHED)) {
+                return;
+            }
+            if (state.compareAndSet(RUNNING, INTERRUPTING)) {
+                runner.interrupt();
+                state.set(FINISHED);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,264 @@
+package pl.training.patterns.behavioral.comman;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+// write-ahead journal of registered and completed commands, every record is its body length,
+// the CRC32C of the body and the body itself (type, command id and for registrations the serialized command)
+public class CommandJournal implements AutoCloseable {
+
+    private static final byte REGISTERED = 1;
+    private static final byte COMPLETED = 2;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    // everything a command may hold besides the allowed classes, the rest of the classpath is rejected
+    private static final String ALWAYS_ALLOWED = "java.lang.*;java.time.*;maxdepth=20;maxrefs=10000";
+
+    private final Map<Long, Command> pendingCommands = new LinkedHashMap<>();
+    private final ObjectInputFilter filter;
+    private final BlockingQueue<PendingRecord> records = new LinkedBlockingQueue<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final FileChannel channel;
+    private final Thread writer;
+    private volatile boolean closed;
+    private long writtenSize;
+    private IOException failure;
+
+    public CommandJournal(Path file) {
+        this(file, CommandJournal.class.getPackageName() + ".*");
+    }
+
+    // allowedClasses is an ObjectInputFilter pattern list naming the command classes the journal may restore
+    public CommandJournal(Path file, String allowedClasses) {
+        filter = ObjectInputFilter.Config.createFilter(allowedClasses + ";" + ALWAYS_ALLOWED + ";!*");
+        try {
+            if (Files.exists(file)) {
+                recover(ByteBuffer.wrap(Files.readAllBytes(file)));
+            }
+            compact(file);
+            channel = FileChannel.open(file, WRITE, APPEND);
+            writtenSize = channel.size();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        writer = new Thread(this::writeRecords, "command-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // commands registered but not completed before the last shutdown or crash, in registration order
+    public Map<Long, Command> pendingCommands() {
+        return Collections.unmodifiableMap(pendingCommands);
+    }
+
+    // completes once the registration is on disk, concurrent appends share a single fsync
+    public CompletableFuture<Long> append(Command command) {
+        var id = nextId.getAndIncrement();
+        return enqueue(record(REGISTERED, id, serialize(command))).thenApply(ignored -> id);
+    }
+
+    public CompletableFuture<Void> complete(long id) {
+        return enqueue(record(COMPLETED, id, new byte[0]));
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        records.add(PendingRecord.CLOSE);
+        try {
+            writer.join();
+            channel.close();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    // a record queued while close() runs either made it in front of the close marker and gets written,
+    // or is still queued after it and is taken back out and failed
+    private CompletableFuture<Void> enqueue(ByteBuffer record) {
+        if (closed) {
+            throw new IllegalStateException("Command journal closed");
+        }
+        var pendingRecord = new PendingRecord(record, new CompletableFuture<>());
+        records.add(pendingRecord);
+        if (closed && records.remove(pendingRecord)) {
+            pendingRecord.written().completeExceptionally(new IllegalStateException("Command journal closed"));
+        }
+        return pendingRecord.written();
+    }
+
+    private void writeRecords() {
+        var batch = new ArrayList<PendingRecord>();
+        var closing = false;
+        while (!closing) {
+            try {
+                batch.add(records.take());
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            records.drainTo(batch);
+            closing = batch.remove(PendingRecord.CLOSE);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    // a failed batch is cut off again, recovery stops at the first torn record and would drop every later one;
+    // once even that fails the journal refuses further records
+    private void write(List<PendingRecord> batch) {
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            var buffers = batch.stream().map(PendingRecord::record).toArray(ByteBuffer[]::new);
+            long size = writtenSize;
+            try {
+                while (buffers.length > 0 && buffers[buffers.length - 1].hasRemaining()) {
+                    size += channel.write(buffers);
+                }
+                channel.force(false);
+            } catch (IOException exception) {
+                truncate(exception);
+                throw exception;
+            }
+            writtenSize = size;
+            batch.forEach(pendingRecord -> pendingRecord.written().complete(null));
+        } catch (IOException exception) {
+            batch.forEach(pendingRecord -> pendingRecord.written().completeExceptionally(exception));
+        }
+    }
+
+    private void truncate(IOException cause) {
+        try {
+            channel.truncate(writtenSize);
+            channel.force(false);
+        } catch (IOException exception) {
+            cause.addSuppressed(exception);
+            failure = cause;
+        }
+    }
+
+    // a torn or corrupted record can only be the last one, everything from it on is dropped
+    private void recover(ByteBuffer journal) {
+        while (journal.remaining() >= HEADER_SIZE) {
+            var length = journal.getInt();
+            var checksum = journal.getInt();
+            if (length < Byte.BYTES + Long.BYTES || length > journal.remaining()) {
+                return;
+            }
+            var body = journal.slice(journal.position(), length);
+            if (checksum(body) != checksum) {
+                return;
+            }
+            journal.position(journal.position() + length);
+            var type = body.get();
+            var id = body.getLong();
+            nextId.accumulateAndGet(id + 1, Math::max);
+            if (type == REGISTERED) {
+                var command = new byte[body.remaining()];
+                body.get(command);
+                pendingCommands.put(id, deserialize(command));
+            } else {
+                pendingCommands.remove(id);
+            }
+        }
+    }
+
+    // rewrites the journal with pending registrations only, so it does not grow across restarts
+    private void compact(Path file) throws IOException {
+        var compacted = file.resolveSibling(file.getFileName() + ".compacted");
+        try (var output = FileChannel.open(compacted, WRITE, CREATE, TRUNCATE_EXISTING)) {
+            for (var entry : pendingCommands.entrySet()) {
+                var record = record(REGISTERED, entry.getKey(), serialize(entry.getValue()));
+                while (record.hasRemaining()) {
+                    output.write(record);
+                }
+            }
+            output.force(false);
+        }
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(file.toAbsolutePath().getParent());
+    }
+
+    // the rename is durable only once the directory entry is on disk; where a directory can not be opened
+    // or forced, as on Windows, the rename is left to the file system
+    private static void forceDirectory(Path directory) {
+        try (var channel = FileChannel.open(directory, READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static ByteBuffer record(byte type, long id, byte[] command) {
+        var length = Byte.BYTES + Long.BYTES + command.length;
+        var record = ByteBuffer.allocate(HEADER_SIZE + length);
+        record.position(HEADER_SIZE);
+        record.put(type).putLong(id).put(command);
+        record.putInt(0, length).putInt(Integer.BYTES, checksum(record.slice(HEADER_SIZE, length)));
+        return record.flip();
+    }
+
+    private static int checksum(ByteBuffer body) {
+        var crc = new CRC32C();
+        crc.update(body.duplicate());
+        return (int) crc.getValue();
+    }
+
+    private static byte[] serialize(Command command) {
+        if (!(command instanceof Serializable)) {
+            throw new IllegalArgumentException("Journaled command must be serializable: " + command.getClass().getName());
+        }
+        var bytes = new ByteArrayOutputStream();
+        try (var output = new ObjectOutputStream(bytes)) {
+            output.writeObject(command);
+        } catch (IOException exception) {
+            throw new IllegalArgumentException("Command serialization failed: " + command.getClass().getName(), exception);
+        }
+        return bytes.toByteArray();
+    }
+
+    private Command deserialize(byte[] command) {
+        try (var input = new ObjectInputStream(new ByteArrayInputStream(command))) {
+            input.setObjectInputFilter(filter);
+            return (Command) input.readObject();
+        } catch (IOException | ClassNotFoundException exception) {
+            throw new IllegalStateException("Journaled command can not be restored", exception);
+        }
+    }
+
+    private record PendingRecord(ByteBuffer record, CompletableFuture<Void> written) {
+
+        static final PendingRecord CLOSE = new PendingRecord(ByteBuffer.allocate(0), new CompletableFuture<>());
+
+    }
+
+}
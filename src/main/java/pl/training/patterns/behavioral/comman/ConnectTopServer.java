@@ -2,8 +2,14 @@ package pl.training.patterns.behavioral.comman;
 
 import lombok.extern.java.Log;
 
+import java.io.Serial;
+import java.io.Serializable;
+
 @Log
-public class ConnectTopServer implements Command{
+public class ConnectTopServer implements Command, Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
 
     @Override
     public void execute() {
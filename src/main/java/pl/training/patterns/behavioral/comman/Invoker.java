@@ -1,14 +1,34 @@
 package pl.training.patterns.behavioral.comman;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class Invoker {
 
-    private final Queue<Command> commands = new LinkedList<>();
+    private final Queue<Command> commands = new ConcurrentLinkedQueue<>();
+    private final CommandJournal journal;
 
+    public Invoker() {
+        this.journal = null;
+    }
+
+    // commands left pending in the journal by a previous run are registered again
+    public Invoker(CommandJournal journal) {
+        this.journal = journal;
+        journal.pendingCommands()
+                .forEach((id, command) -> commands.add(new JournaledCommand(id, command, journal)));
+    }
+
+    // with a journal the command is on disk when this method returns
     public void register(Command command) {
-        commands.add(command);
+        if (journal == null) {
+            commands.add(command);
+        } else {
+            var id = journal.append(command).join();
+            commands.add(new JournaledCommand(id, command, journal));
+        }
     }
 
     public void invokeAll() {
@@ -19,4 +39,14 @@ public class Invoker {
         command.execute();
     }
 
+    // hands all registered commands over to the executor, the queue is emptied as they are taken
+    public CompletableFuture<Void> invokeAll(CommandExecutor executor, Priority priority) {
+        var registered = new ArrayList<Command>();
+        Command command;
+        while ((command = commands.poll()) != null) {
+            registered.add(command);
+        }
+        return executor.submitAll(registered, priority);
+    }
+
 }
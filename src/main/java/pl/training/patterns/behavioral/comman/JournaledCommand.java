@@ -0,0 +1,20 @@
+package pl.training.patterns.behavioral.comman;
+
+import lombok.RequiredArgsConstructor;
+
+// marks the command completed in the journal once it ran and returns when that is on disk,
+// a crash in between replays it again and a failed write fails the command
+@RequiredArgsConstructor
+class JournaledCommand implements Command {
+
+    private final long id;
+    private final Command command;
+    private final CommandJournal journal;
+
+    @Override
+    public void execute() {
+        command.execute();
+        journal.complete(id).join();
+    }
+
+}
@@ -2,10 +2,15 @@ package pl.training.patterns.behavioral.comman;
 
 import lombok.extern.java.Log;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 @Log
-public class PrintTime implements Command {
+public class PrintTime implements Command, Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
 
     @Override
     public void execute() {
@@ -0,0 +1,9 @@
+package pl.training.patterns.behavioral.comman;
+
+public enum Priority {
+
+    HIGH,
+    NORMAL,
+    LOW
+
+}
@@ -2,6 +2,7 @@ package pl.training.patterns.behavioral.interpreter;
 
 import lombok.extern.java.Log;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -35,6 +36,19 @@ public class Application {
 
         log.info("Result: " + expression.evaluate(Map.of("a", 4.0)));
 
+        var optimized = new ExpressionOptimizer().optimize(expression);
+        log.info("Optimized result: " + optimized.evaluate(Map.of("a", 4.0)));
+
+        var slots = new VariableSlots();
+        var compiled = expression.compile(slots);
+        var generated = new BytecodeCompiler().compile(expression, slots);
+        var context = slots.context(Map.of("a", 4.0));
+        log.info("Compiled result: " + compiled.evaluate(context));
+        log.info("Generated result: " + generated.evaluate(context));
+
+        var values = new double[]{1, 2, 3, 4};
+        log.info("Column results: " + Arrays.toString(expression.evaluateColumns(Map.of("a", values))));
+
     }
 
 }
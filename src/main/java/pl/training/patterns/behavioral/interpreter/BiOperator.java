@@ -4,4 +4,23 @@ public interface BiOperator {
 
     double apply(double a, double b);
 
+    // result may be the same array as a or b, every element is read before it is written
+    default void apply(double[] a, double[] b, double[] result) {
+        for (int index = 0; index < result.length; index++) {
+            result[index] = apply(a[index], b[index]);
+        }
+    }
+
+    default void apply(double[] a, double b, double[] result) {
+        for (int index = 0; index < result.length; index++) {
+            result[index] = apply(a[index], b);
+        }
+    }
+
+    default void apply(double a, double[] b, double[] result) {
+        for (int index = 0; index < result.length; index++) {
+            result[index] = apply(a, b[index]);
+        }
+    }
+
 }
@@ -0,0 +1,196 @@
+package pl.training.patterns.behavioral.interpreter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// emits a hidden class implementing CompiledExpression with the whole tree as straight-line bytecode,
+// trees using operators other than the built-in ones can not be inlined and fall back to Expression.compile
+public class BytecodeCompiler {
+
+    private static final String CLASS_NAME = "pl/training/patterns/behavioral/interpreter/GeneratedExpression";
+    private static final int MAX_CODE_LENGTH = 65_535;
+
+    private static final int THIS_CLASS = 2;
+    private static final int OBJECT_CLASS = 4;
+    private static final int INTERFACE_CLASS = 6;
+    private static final int INIT_NAME = 7;
+    private static final int INIT_DESCRIPTOR = 8;
+    private static final int OBJECT_INIT = 10;
+    private static final int EVALUATE_NAME = 11;
+    private static final int EVALUATE_DESCRIPTOR = 12;
+    private static final int CODE = 13;
+    private static final int FIRST_CONSTANT = 14;
+
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int ICONST_0 = 0x03;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC2_W = 0x14;
+    private static final int DALOAD = 0x31;
+    private static final int DADD = 0x63;
+    private static final int DSUB = 0x67;
+    private static final int DMUL = 0x6b;
+    private static final int DRETURN = 0xaf;
+    private static final int RETURN = 0xb1;
+    private static final int INVOKESPECIAL = 0xb7;
+
+    private final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    public CompiledExpression compile(Expression expression, VariableSlots slots) {
+        if (!isInlinable(expression)) {
+            return expression.compile(slots);
+        }
+        var constants = new LinkedHashMap<Long, Integer>();
+        var code = new ByteArrayOutputStream();
+        emit(expression, slots, constants, code);
+        code.write(DRETURN);
+        if (code.size() > MAX_CODE_LENGTH) {
+            return expression.compile(slots);
+        }
+        return instantiate(classFile(constants, code.toByteArray(), maxStack(expression)));
+    }
+
+    private boolean isInlinable(Expression expression) {
+        if (expression instanceof Operation operation) {
+            var operator = operation.getOperator();
+            return (operator instanceof Plus || operator instanceof Minus || operator instanceof Multiply)
+                    && isInlinable(operation.getLeft()) && isInlinable(operation.getRight());
+        }
+        return expression instanceof Literal || expression instanceof Variable;
+    }
+
+    private void emit(Expression expression, VariableSlots slots, Map<Long, Integer> constants, ByteArrayOutputStream code) {
+        if (expression instanceof Literal literal) {
+            var bits = Double.doubleToRawLongBits(literal.getValue());
+            // a double takes two constant pool entries
+            var index = constants.computeIfAbsent(bits, ignored -> FIRST_CONSTANT + 2 * constants.size());
+            code.write(LDC2_W);
+            writeShort(code, index);
+        } else if (expression instanceof Variable variable) {
+            code.write(ALOAD_1);
+            pushInt(slots.slotOf(variable.getName()), code);
+            code.write(DALOAD);
+        } else {
+            var operation = (Operation) expression;
+            emit(operation.getLeft(), slots, constants, code);
+            emit(operation.getRight(), slots, constants, code);
+            var operator = operation.getOperator();
+            code.write(operator instanceof Plus ? DADD : operator instanceof Minus ? DSUB : DMUL);
+        }
+    }
+
+    // operand stack size in slots, a double takes two and an array element load needs the array and index first
+    private int maxStack(Expression expression) {
+        if (expression instanceof Operation operation) {
+            return Math.max(maxStack(operation.getLeft()), 2 + maxStack(operation.getRight()));
+        }
+        return 2;
+    }
+
+    private void pushInt(int value, ByteArrayOutputStream code) {
+        if (value <= 5) {
+            code.write(ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            code.write(BIPUSH);
+            code.write(value);
+        } else if (value <= Short.MAX_VALUE) {
+            code.write(SIPUSH);
+            writeShort(code, value);
+        } else {
+            throw new IllegalArgumentException("Too many variables: " + value);
+        }
+    }
+
+    private byte[] classFile(Map<Long, Integer> constants, byte[] code, int maxStack) {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(52);
+            out.writeShort(FIRST_CONSTANT + 2 * constants.size());
+            writeUtf8(out, CLASS_NAME);
+            writeClass(out, 1);
+            writeUtf8(out, "java/lang/Object");
+            writeClass(out, 3);
+            writeUtf8(out, CompiledExpression.class.getName().replace('.', '/'));
+            writeClass(out, 5);
+            writeUtf8(out, "<init>");
+            writeUtf8(out, "()V");
+            out.writeByte(12);
+            out.writeShort(INIT_NAME);
+            out.writeShort(INIT_DESCRIPTOR);
+            out.writeByte(10);
+            out.writeShort(OBJECT_CLASS);
+            out.writeShort(9);
+            writeUtf8(out, "evaluate");
+            writeUtf8(out, "([D)D");
+            writeUtf8(out, "Code");
+            for (var bits : constants.keySet()) {
+                out.writeByte(6);
+                out.writeLong(bits);
+            }
+            out.writeShort(0x0001 | 0x0010 | 0x0020);
+            out.writeShort(THIS_CLASS);
+            out.writeShort(OBJECT_CLASS);
+            out.writeShort(1);
+            out.writeShort(INTERFACE_CLASS);
+            out.writeShort(0);
+            out.writeShort(2);
+            writeMethod(out, INIT_NAME, INIT_DESCRIPTOR, 1, 1,
+                    new byte[]{(byte) ALOAD_0, (byte) INVOKESPECIAL, 0, (byte) OBJECT_INIT, (byte) RETURN});
+            writeMethod(out, EVALUATE_NAME, EVALUATE_DESCRIPTOR, maxStack, 2, code);
+            out.writeShort(0);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void writeMethod(DataOutputStream out, int name, int descriptor, int maxStack, int maxLocals, byte[] code) throws IOException {
+        out.writeShort(0x0001);
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(CODE);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+
+    private void writeUtf8(DataOutputStream out, String value) throws IOException {
+        out.writeByte(1);
+        out.writeUTF(value);
+    }
+
+    private void writeClass(DataOutputStream out, int name) throws IOException {
+        out.writeByte(7);
+        out.writeShort(name);
+    }
+
+    private void writeShort(ByteArrayOutputStream code, int value) {
+        code.write(value >>> 8);
+        code.write(value);
+    }
+
+    private CompiledExpression instantiate(byte[] classFile) {
+        try {
+            var hiddenClass = lookup.defineHiddenClass(classFile, true);
+            var constructor = hiddenClass.findConstructor(hiddenClass.lookupClass(), MethodType.methodType(void.class));
+            return (CompiledExpression) constructor.invoke();
+        } catch (Throwable throwable) {
+            throw new IllegalStateException("Expression class can not be defined", throwable);
+        }
+    }
+
+}
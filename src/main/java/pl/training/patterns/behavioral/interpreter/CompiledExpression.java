@@ -0,0 +1,7 @@
+package pl.training.patterns.behavioral.interpreter;
+
+public interface CompiledExpression {
+
+    double evaluate(double[] context);
+
+}
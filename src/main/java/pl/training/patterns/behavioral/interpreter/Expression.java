@@ -1,9 +1,43 @@
 package pl.training.patterns.behavioral.interpreter;
 
+import java.util.HashMap;
 import java.util.Map;
 
 public interface Expression {
 
     double evaluate(Map<String,Double> context);
 
+    // evaluates the expression for every row of the given columns, all columns must have the same length
+    default double[] evaluateColumns(Map<String, double[]> columns) {
+        var rows = -1;
+        for (var column : columns.entrySet()) {
+            if (rows != -1 && column.getValue().length != rows) {
+                throw new IllegalArgumentException("Column " + column.getKey() + " has " + column.getValue().length + " rows, expected " + rows);
+            }
+            rows = column.getValue().length;
+        }
+        return evaluateColumns(columns, Math.max(rows, 0));
+    }
+
+    // returns a new array owned by the caller, input columns are never returned or modified,
+    // expressions that do not know how to evaluate columns are interpreted row by row
+    default double[] evaluateColumns(Map<String, double[]> columns, int rows) {
+        var values = new double[rows];
+        var row = new HashMap<String, Double>();
+        for (int index = 0; index < rows; index++) {
+            for (var column : columns.entrySet()) {
+                row.put(column.getKey(), column.getValue()[index]);
+            }
+            values[index] = evaluate(row);
+        }
+        return values;
+    }
+
+    // resolves variables to slots once, so the result evaluates over double[] without lookups or boxing,
+    // expressions that do not know how to compile themselves are interpreted over a map view of the context,
+    // so the variables they read must have been given slots
+    default CompiledExpression compile(VariableSlots slots) {
+        return context -> evaluate(slots.values(context));
+    }
+
 }
@@ -0,0 +1,106 @@
+package pl.training.patterns.behavioral.interpreter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// folds constant subtrees, removes identity operations and shares structurally equal subtrees,
+// optimized forms are cached by the structure of the original expression, least recently used first out
+public class ExpressionOptimizer {
+
+    private static final int DEFAULT_CAPACITY = 10_000;
+
+    private final Map<Expression, Expression> optimized;
+    private final Map<Expression, Expression> interned;
+    private final boolean reassociate;
+
+    // with reassociate c1 * (c2 * x) becomes (c1 * c2) * x, which may round differently or overflow
+    // where the original order did not, so it is only done when asked for
+    public ExpressionOptimizer(int capacity, boolean reassociate) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Optimizer capacity must be positive");
+        }
+        this.optimized = boundedCache(capacity);
+        this.interned = boundedCache(capacity);
+        this.reassociate = reassociate;
+    }
+
+    public ExpressionOptimizer(int capacity) {
+        this(capacity, false);
+    }
+
+    public ExpressionOptimizer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    private static Map<Expression, Expression> boundedCache(int capacity) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Expression, Expression> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public synchronized Expression optimize(Expression expression) {
+        var cached = optimized.get(expression);
+        if (cached != null) {
+            return cached;
+        }
+        var result = rewrite(expression);
+        optimized.put(expression, result);
+        return result;
+    }
+
+    synchronized int cachedExpressions() {
+        return optimized.size();
+    }
+
+    private Expression rewrite(Expression expression) {
+        if (expression instanceof Operation operation) {
+            var left = rewrite(operation.getLeft());
+            var right = rewrite(operation.getRight());
+            return simplify(left, right, operation.getOperator());
+        }
+        return intern(expression);
+    }
+
+    // every rewrite gives bit for bit the same result as the original, including the sign of zero,
+    // x + 0 is kept because -0 + 0 is 0, while x + -0, x - 0 and x * 1 are always x
+    private Expression simplify(Expression left, Expression right, BiOperator operator) {
+        if (left instanceof Literal leftLiteral && right instanceof Literal rightLiteral) {
+            return intern(new Literal(operator.apply(leftLiteral.getValue(), rightLiteral.getValue())));
+        }
+        if (operator instanceof Plus && (isLiteral(left, -0.0) || isLiteral(right, -0.0))) {
+            return isLiteral(left, -0.0) ? right : left;
+        }
+        if (operator instanceof Minus && isLiteral(right, 0.0)) {
+            return left;
+        }
+        if (operator instanceof Multiply && (isLiteral(left, 1) || isLiteral(right, 1))) {
+            return isLiteral(left, 1) ? right : left;
+        }
+        if (reassociate && (operator instanceof Plus || operator instanceof Multiply)) {
+            // constants go to the left, so c1 * (c2 * x) can be folded to (c1 * c2) * x
+            if (right instanceof Literal && !(left instanceof Literal)) {
+                return simplify(right, left, operator);
+            }
+            if (left instanceof Literal literal && right instanceof Operation operation
+                    && operator.equals(operation.getOperator()) && operation.getLeft() instanceof Literal nestedLiteral) {
+                var constant = intern(new Literal(operator.apply(literal.getValue(), nestedLiteral.getValue())));
+                return simplify(constant, operation.getRight(), operator);
+            }
+        }
+        return intern(new Operation(left, right, operator));
+    }
+
+    private boolean isLiteral(Expression expression, double value) {
+        return expression instanceof Literal literal
+                && Double.doubleToRawLongBits(literal.getValue()) == Double.doubleToRawLongBits(value);
+    }
+
+    private Expression intern(Expression expression) {
+        var existing = interned.putIfAbsent(expression, expression);
+        return existing == null ? expression : existing;
+    }
+
+}
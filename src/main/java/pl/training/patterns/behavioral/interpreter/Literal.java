@@ -1,9 +1,15 @@
 package pl.training.patterns.behavioral.interpreter;
 
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
+import java.util.Arrays;
 import java.util.Map;
 
+@EqualsAndHashCode
+@Getter(AccessLevel.PACKAGE)
 @RequiredArgsConstructor
 public class Literal implements Expression {
 
@@ -14,4 +20,17 @@ public class Literal implements Expression {
         return value;
     }
 
+    @Override
+    public double[] evaluateColumns(Map<String, double[]> columns, int rows) {
+        var values = new double[rows];
+        Arrays.fill(values, value);
+        return values;
+    }
+
+    @Override
+    public CompiledExpression compile(VariableSlots slots) {
+        var value = this.value;
+        return context -> value;
+    }
+
 }
@@ -1,5 +1,8 @@
 package pl.training.patterns.behavioral.interpreter;
 
+import lombok.EqualsAndHashCode;
+
+@EqualsAndHashCode
 public class Multiply implements BiOperator {
 
     @Override
@@ -7,4 +10,25 @@ public class Multiply implements BiOperator {
         return a * b;
     }
 
+    @Override
+    public void apply(double[] a, double[] b, double[] result) {
+        for (int index = 0; index < result.length; index++) {
+            result[index] = a[index] * b[index];
+        }
+    }
+
+    @Override
+    public void apply(double[] a, double b, double[] result) {
+        for (int index = 0; index < result.length; index++) {
+            result[index] = a[index] * b;
+        }
+    }
+
+    @Override
+    public void apply(double a, double[] b, double[] result) {
+        for (int index = 0; index < result.length; index++) {
+            result[index] = a * b[index];
+        }
+    }
+
 }
@@ -1,9 +1,17 @@
 package pl.training.patterns.behavioral.interpreter;
 
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
+@EqualsAndHashCode(cacheStrategy = EqualsAndHashCode.CacheStrategy.LAZY)
+@Getter(AccessLevel.PACKAGE)
 @RequiredArgsConstructor
 public class Operation implements Expression {
 
@@ -16,4 +24,81 @@ public class Operation implements Expression {
         return operator.apply(left.evaluate(context), right.evaluate(context));
     }
 
+    // the only array allocated per call is the result, variables are read from their columns, literals are applied
+    // as scalars and nested operations are evaluated into the result or into scratch buffers shared by the whole tree
+    @Override
+    public double[] evaluateColumns(Map<String, double[]> columns, int rows) {
+        var result = new double[rows];
+        evaluateInto(columns, result, new Scratch(rows), 0);
+        return result;
+    }
+
+    // the left operand is evaluated into result, the right one into the scratch buffer of this depth
+    private void evaluateInto(Map<String, double[]> columns, double[] result, Scratch scratch, int depth) {
+        if (left instanceof Literal leftLiteral) {
+            if (right instanceof Literal rightLiteral) {
+                Arrays.fill(result, operator.apply(leftLiteral.getValue(), rightLiteral.getValue()));
+            } else {
+                operator.apply(leftLiteral.getValue(), valuesOf(right, columns, result, scratch, depth), result);
+            }
+            return;
+        }
+        var leftValues = valuesOf(left, columns, result, scratch, depth);
+        if (right instanceof Literal rightLiteral) {
+            operator.apply(leftValues, rightLiteral.getValue(), result);
+        } else {
+            operator.apply(leftValues, valuesOf(right, columns, scratch.buffer(depth), scratch, depth + 1), result);
+        }
+    }
+
+    // the returned values are only read, they may be an input column, the target or a new array
+    private static double[] valuesOf(Expression expression, Map<String, double[]> columns, double[] target,
+                                     Scratch scratch, int depth) {
+        if (expression instanceof Variable variable) {
+            var column = variable.column(columns);
+            return column.length < target.length ? Arrays.copyOf(column, target.length) : column;
+        }
+        if (expression instanceof Operation operation) {
+            operation.evaluateInto(columns, target, scratch, depth);
+            return target;
+        }
+        return expression.evaluateColumns(columns, target.length);
+    }
+
+    // built-in operators are inlined into the closure, others are still called through BiOperator
+    @Override
+    public CompiledExpression compile(VariableSlots slots) {
+        var left = this.left.compile(slots);
+        var right = this.right.compile(slots);
+        if (operator instanceof Plus) {
+            return context -> left.evaluate(context) + right.evaluate(context);
+        }
+        if (operator instanceof Minus) {
+            return context -> left.evaluate(context) - right.evaluate(context);
+        }
+        if (operator instanceof Multiply) {
+            return context -> left.evaluate(context) * right.evaluate(context);
+        }
+        var operator = this.operator;
+        return context -> operator.apply(left.evaluate(context), right.evaluate(context));
+    }
+
+    private static class Scratch {
+
+        private final int rows;
+        private final List<double[]> buffers = new ArrayList<>();
+
+        Scratch(int rows) {
+            this.rows = rows;
+        }
+
+        double[] buffer(int depth) {
+            while (buffers.size() <= depth) {
+                buffers.add(new double[rows]);
+            }
+            return buffers.get(depth);
+        }
+
+    }
+
 }
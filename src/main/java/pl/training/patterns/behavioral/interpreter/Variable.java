@@ -1,9 +1,15 @@
 package pl.training.patterns.behavioral.interpreter;
 
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
+import java.util.Arrays;
 import java.util.Map;
 
+@EqualsAndHashCode
+@Getter(AccessLevel.PACKAGE)
 @RequiredArgsConstructor
 public class Variable implements Expression {
 
@@ -14,4 +20,24 @@ public class Variable implements Expression {
         return context.get(name);
     }
 
+    @Override
+    public double[] evaluateColumns(Map<String, double[]> columns, int rows) {
+        return Arrays.copyOf(column(columns), rows);
+    }
+
+    // the input column itself, callers only read from it
+    double[] column(Map<String, double[]> columns) {
+        var values = columns.get(name);
+        if (values == null) {
+            throw new IllegalArgumentException("Missing column: " + name);
+        }
+        return values;
+    }
+
+    @Override
+    public CompiledExpression compile(VariableSlots slots) {
+        var slot = slots.slotOf(name);
+        return context -> context[slot];
+    }
+
 }
@@ -0,0 +1,42 @@
+package pl.training.patterns.behavioral.interpreter;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// assigns every variable a fixed index in the double[] context of compiled expressions
+public class VariableSlots {
+
+    private final Map<String, Integer> slots = new LinkedHashMap<>();
+
+    public int slotOf(String name) {
+        return slots.computeIfAbsent(name, ignored -> slots.size());
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    public double[] context(Map<String, Double> values) {
+        var context = new double[slots.size()];
+        slots.forEach((name, slot) -> {
+            var value = values.get(name);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing variable: " + name);
+            }
+            context[slot] = value;
+        });
+        return context;
+    }
+
+    public Map<String, Double> values(double[] context) {
+        var values = new HashMap<String, Double>();
+        slots.forEach((name, slot) -> {
+            if (slot < context.length) {
+                values.put(name, context[slot]);
+            }
+        });
+        return values;
+    }
+
+}
@@ -1,12 +1,30 @@
 package pl.training.patterns.behavioral.observer;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+
 public class Application {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException, IOException {
         var subject = new EventsBus();
         var observer = new Logger();
         subject.addConsumer(observer);
+        subject.addConsumer("Stopped", event -> System.out.println("Shutdown hook: " + event.getPayload()));
         subject.publish(new ServerEvent("Started"));
+        subject.publish(new ServerEvent("Stopped"));
+
+        try (var log = new EventLog(Files.createTempDirectory("events"), 1 << 20, 1 << 26, Duration.ofDays(7))) {
+            var loggedSubject = new EventsBus(log);
+            loggedSubject.publish(new ServerEvent("Started with log"));
+            loggedSubject.addConsumer("", event -> System.out.println("Replayed " + event.getOffset() + ": " + event.getPayload()), 0);
+        }
+
+        try (var asyncSubject = new AsyncEventsBus(1024, WaitStrategy.blocking())) {
+            asyncSubject.addConsumer(observer);
+            asyncSubject.start();
+            asyncSubject.publish(new ServerEvent("Started asynchronously"));
+        }
     }
 
 }
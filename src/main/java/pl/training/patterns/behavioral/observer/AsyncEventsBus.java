@@ -0,0 +1,160 @@
+package pl.training.patterns.behavioral.observer;
+
+import lombok.extern.java.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+// disruptor style bus: publishers claim a slot in a preallocated ring, every consumer
+// follows the ring on its own thread with its own sequence, publishers wait only when the ring is full
+@Log
+class AsyncEventsBus implements AutoCloseable {
+
+    private static final long INITIAL_SEQUENCE = -1;
+    // added to the claimed sequence on close, so every later claim lands far above any real sequence
+    private static final long CLOSED = 1L << 62;
+
+    private final ServerEvent[] ring;
+    private final int mask;
+    private final int indexShift;
+    private final AtomicIntegerArray publishedLaps;
+    private final AtomicLong claimed = new AtomicLong(INITIAL_SEQUENCE);
+    private final WaitStrategy waitStrategy;
+    private final List<ConsumerWorker> workers = new ArrayList<>();
+    private volatile boolean running;
+    private volatile long lastSequence = Long.MAX_VALUE;
+
+    AsyncEventsBus(int capacity, WaitStrategy waitStrategy) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.ring = new ServerEvent[capacity];
+        this.mask = capacity - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(capacity);
+        this.publishedLaps = new AtomicIntegerArray(capacity);
+        for (int index = 0; index < capacity; index++) {
+            publishedLaps.set(index, -1);
+        }
+        this.waitStrategy = waitStrategy;
+    }
+
+    void addConsumer(Consumer<ServerEvent> consumer) {
+        addConsumer(BatchConsumer.of(consumer));
+    }
+
+    synchronized void addConsumer(BatchConsumer consumer) {
+        if (running) {
+            throw new IllegalStateException("Consumers must be added before the bus is started");
+        }
+        workers.add(new ConsumerWorker(consumer));
+    }
+
+    synchronized void start() {
+        running = true;
+        for (int index = 0; index < workers.size(); index++) {
+            var thread = new Thread(workers.get(index), "events-bus-consumer-" + index);
+            thread.setDaemon(true);
+            workers.get(index).thread = thread;
+            thread.start();
+        }
+    }
+
+    // a publish either fails or is delivered: a sequence claimed before close() is consumed before the consumers stop
+    void publish(ServerEvent event) {
+        if (!running) {
+            throw new IllegalStateException("Bus is not running");
+        }
+        long sequence = claimed.incrementAndGet();
+        if (sequence >= CLOSED / 2) {
+            throw new IllegalStateException("Bus is not running");
+        }
+        long wrapPoint = sequence - ring.length;
+        while (wrapPoint > slowestConsumerSequence()) {
+            LockSupport.parkNanos(1);
+        }
+        int index = (int) (sequence & mask);
+        ring[index] = event;
+        publishedLaps.set(index, lap(sequence));
+        waitStrategy.signalAll();
+    }
+
+    // stops accepting events and waits until every consumer has seen everything claimed so far
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        long last = claimed.getAndAdd(CLOSED);
+        if (last < CLOSED / 2) {
+            lastSequence = last;
+        }
+        waitStrategy.signalAll();
+        for (ConsumerWorker worker : workers) {
+            if (worker.thread != null) {
+                worker.thread.join();
+            }
+        }
+    }
+
+    private long slowestConsumerSequence() {
+        long slowest = Long.MAX_VALUE;
+        for (ConsumerWorker worker : workers) {
+            slowest = Math.min(slowest, worker.sequence.get());
+        }
+        return slowest;
+    }
+
+    private boolean isPublished(long sequence) {
+        return publishedLaps.get((int) (sequence & mask)) == lap(sequence);
+    }
+
+    private int lap(long sequence) {
+        return (int) (sequence >>> indexShift);
+    }
+
+    private class ConsumerWorker implements Runnable {
+
+        private final BatchConsumer consumer;
+        private final AtomicLong sequence = new AtomicLong(INITIAL_SEQUENCE);
+        private Thread thread;
+
+        ConsumerWorker(BatchConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                long next = sequence.get() + 1;
+                long available = next - 1;
+                while (isPublished(available + 1)) {
+                    available++;
+                }
+                if (available < next) {
+                    if (next > lastSequence) {
+                        return;
+                    }
+                    waitStrategy.await(() -> isPublished(next) || next > lastSequence);
+                    continue;
+                }
+                for (long current = next; current <= available; current++) {
+                    deliver(ring[(int) (current & mask)], current == available);
+                }
+                sequence.lazySet(available);
+            }
+        }
+
+        private void deliver(ServerEvent event, boolean endOfBatch) {
+            try {
+                consumer.accept(event, endOfBatch);
+            } catch (RuntimeException exception) {
+                log.log(Level.WARNING, "Consumer failed to handle event", exception);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,13 @@
+package pl.training.patterns.behavioral.observer;
+
+import java.util.function.Consumer;
+
+public interface BatchConsumer {
+
+    void accept(ServerEvent event, boolean endOfBatch);
+
+    static BatchConsumer of(Consumer<ServerEvent> consumer) {
+        return (event, endOfBatch) -> consumer.accept(event);
+    }
+
+}
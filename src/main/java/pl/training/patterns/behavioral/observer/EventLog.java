@@ -0,0 +1,291 @@
+package pl.training.patterns.behavioral.observer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+// append-only log split into fixed-size memory-mapped segments named after the offset of their first event;
+// every record is the payload length plus one followed by the UTF-8 payload, zero marks the end of a segment
+// and -1 an event without payload
+class EventLog implements AutoCloseable {
+
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int LENGTH_BYTES = Integer.BYTES;
+    private static final int END_OF_SEGMENT = 0;
+    private static final int NO_PAYLOAD = -1;
+    private static final int DEFAULT_APPENDS_PER_FORCE = 256;
+    private static final Duration DEFAULT_FORCE_INTERVAL = Duration.ofMillis(100);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long retentionBytes;
+    private final Duration retentionTime;
+    private final Clock clock;
+    private final int appendsPerForce;
+    private final long forceIntervalMillis;
+    private final List<Segment> segments = new ArrayList<>();
+    private int unforcedAppends;
+    private long lastForceMillis;
+
+    EventLog(Path directory, int segmentSize, long retentionBytes, Duration retentionTime) throws IOException {
+        this(directory, segmentSize, retentionBytes, retentionTime, Clock.systemUTC(), DEFAULT_APPENDS_PER_FORCE,
+                DEFAULT_FORCE_INTERVAL);
+    }
+
+    // the mapped pages are forced after appendsPerForce appends, or by the first append once forceInterval
+    // has passed since the last force; a crash of the process alone loses nothing, a crash of the machine
+    // loses the events appended since the last force
+    EventLog(Path directory, int segmentSize, long retentionBytes, Duration retentionTime, Clock clock,
+             int appendsPerForce, Duration forceInterval) throws IOException {
+        if (appendsPerForce <= 0) {
+            throw new IllegalArgumentException("Appends per force must be positive");
+        }
+        if (forceInterval.isNegative()) {
+            throw new IllegalArgumentException("Force interval must not be negative");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.retentionBytes = retentionBytes;
+        this.retentionTime = retentionTime;
+        this.clock = clock;
+        this.appendsPerForce = appendsPerForce;
+        this.forceIntervalMillis = forceInterval.toMillis();
+        this.lastForceMillis = clock.millis();
+        try (Stream<Path> files = Files.list(directory)) {
+            var existing = files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+            for (Path file : existing) {
+                segments.add(Segment.open(file, baseOffsetOf(file), segmentSize));
+            }
+        }
+        if (segments.isEmpty()) {
+            roll(0);
+        }
+    }
+
+    synchronized long append(ServerEvent event) {
+        var payload = event.getPayload() == null ? null : event.getPayload().getBytes(StandardCharsets.UTF_8);
+        int length = payload == null ? 0 : payload.length;
+        if (LENGTH_BYTES + length > segmentSize - LENGTH_BYTES) {
+            throw new IllegalArgumentException("Event does not fit into a log segment");
+        }
+        long now = clock.millis();
+        var active = activeSegment();
+        if (!active.fits(length)) {
+            force(active, now);
+            active = roll(active.nextOffset());
+        }
+        long offset = active.append(payload, FileTime.fromMillis(now));
+        if (++unforcedAppends >= appendsPerForce || now - lastForceMillis >= forceIntervalMillis) {
+            force(active, now);
+        }
+        if (segments.size() > 1) {
+            applyRetention(now);
+        }
+        return offset;
+    }
+
+    private void force(Segment segment, long now) {
+        segment.force();
+        unforcedAppends = 0;
+        lastForceMillis = now;
+    }
+
+    synchronized long firstOffset() {
+        return segments.get(0).baseOffset;
+    }
+
+    synchronized long nextOffset() {
+        return activeSegment().nextOffset();
+    }
+
+    // reads every event from the given offset up to the end of the log and returns the offset to continue from
+    long replay(long fromOffset, Consumer<ServerEvent> consumer) {
+        long offset = Math.max(fromOffset, firstOffset());
+        for (Segment segment : segmentsFrom(offset)) {
+            offset = segment.read(offset, consumer);
+        }
+        return offset;
+    }
+
+    @Override
+    public synchronized void close() {
+        segments.forEach(Segment::close);
+    }
+
+    private synchronized List<Segment> segmentsFrom(long offset) {
+        var result = new ArrayList<Segment>();
+        for (int index = 0; index < segments.size(); index++) {
+            boolean last = index == segments.size() - 1;
+            if (last || segments.get(index + 1).baseOffset > offset) {
+                result.add(segments.get(index));
+            }
+        }
+        return result;
+    }
+
+    private Segment activeSegment() {
+        return segments.get(segments.size() - 1);
+    }
+
+    private Segment roll(long baseOffset) {
+        try {
+            var file = directory.resolve(String.format("%020d%s", baseOffset, SEGMENT_SUFFIX));
+            var segment = Segment.open(file, baseOffset, segmentSize);
+            segments.add(segment);
+            return segment;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    // runs on every append, so segments expire by time even while the active one is not rolled;
+    // the active segment is always kept
+    private void applyRetention(long now) {
+        var oldestAllowed = FileTime.fromMillis(now - retentionTime.toMillis());
+        while (segments.size() > 1) {
+            var oldest = segments.get(0);
+            boolean tooBig = (long) segments.size() * segmentSize > retentionBytes;
+            boolean tooOld = oldest.lastAppend.compareTo(oldestAllowed) < 0;
+            if (!tooBig && !tooOld) {
+                return;
+            }
+            oldest.close();
+            segments.remove(0);
+            try {
+                Files.deleteIfExists(oldest.file);
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+    }
+
+    private static long baseOffsetOf(Path file) {
+        var name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static class Segment {
+
+        private final Path file;
+        private final long baseOffset;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private volatile int size;
+        private volatile long events;
+        private volatile FileTime lastAppend;
+        private int forcedSize;
+
+        private Segment(Path file, long baseOffset, FileChannel channel, MappedByteBuffer buffer) {
+            this.file = file;
+            this.baseOffset = baseOffset;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path file, long baseOffset, int segmentSize) throws IOException {
+            var channel = FileChannel.open(file, CREATE, READ, WRITE);
+            var segment = new Segment(file, baseOffset, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+            segment.recover();
+            segment.lastAppend = Files.getLastModifiedTime(file);
+            return segment;
+        }
+
+        boolean fits(int payloadLength) {
+            return size + LENGTH_BYTES + payloadLength <= buffer.capacity() - LENGTH_BYTES;
+        }
+
+        long nextOffset() {
+            return baseOffset + events;
+        }
+
+        // the payload is written before its length, so a reader never sees a half written record
+        long append(byte[] payload, FileTime now) {
+            int position = size;
+            if (payload == null) {
+                buffer.putInt(position, NO_PAYLOAD);
+                size = position + LENGTH_BYTES;
+            } else {
+                buffer.put(position + LENGTH_BYTES, payload);
+                buffer.putInt(position, payload.length + 1);
+                size = position + LENGTH_BYTES + payload.length;
+            }
+            lastAppend = now;
+            return baseOffset + events++;
+        }
+
+        // writes only what was appended since the last force
+        void force() {
+            int end = size;
+            if (end > forcedSize) {
+                buffer.force(forcedSize, end - forcedSize);
+                forcedSize = end;
+            }
+        }
+
+        long read(long fromOffset, Consumer<ServerEvent> consumer) {
+            var view = buffer.duplicate();
+            int limit = size;
+            long offset = baseOffset;
+            int position = 0;
+            while (position < limit) {
+                int stored = view.getInt(position);
+                int length = stored == NO_PAYLOAD ? 0 : stored - 1;
+                if (offset >= fromOffset) {
+                    String payload = null;
+                    if (stored != NO_PAYLOAD) {
+                        var bytes = new byte[length];
+                        view.get(position + LENGTH_BYTES, bytes);
+                        payload = new String(bytes, StandardCharsets.UTF_8);
+                    }
+                    consumer.accept(new ServerEvent(payload, offset));
+                }
+                position += LENGTH_BYTES + length;
+                offset++;
+            }
+            return Math.max(offset, fromOffset);
+        }
+
+        void close() {
+            buffer.force();
+            try {
+                channel.close();
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+
+        private void recover() {
+            int position = 0;
+            long count = 0;
+            while (position + LENGTH_BYTES <= buffer.capacity()) {
+                int stored = buffer.getInt(position);
+                int length = stored == NO_PAYLOAD ? 0 : stored - 1;
+                if (stored == END_OF_SEGMENT || length < 0 || position + LENGTH_BYTES + length > buffer.capacity()) {
+                    break;
+                }
+                position += LENGTH_BYTES + length;
+                count++;
+            }
+            size = position;
+            forcedSize = position;
+            events = count;
+        }
+
+    }
+
+}
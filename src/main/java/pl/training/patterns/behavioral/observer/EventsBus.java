@@ -1,21 +1,198 @@
 package pl.training.patterns.behavioral.observer;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
-import static java.util.Collections.synchronizedSet;
-
+// consumers subscribe to a payload prefix, the empty prefix receives every event, including ones without payload;
+// prefixes form a trie, so publishing walks only the nodes matching the payload
 class EventsBus {
 
-    private final Set<Consumer<ServerEvent>> consumers = synchronizedSet(new HashSet<>());
+    private static final String ALL_EVENTS = "";
+
+    private final TopicNode root = new TopicNode();
+    private final Map<Consumer<ServerEvent>, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final Map<Consumer<ServerEvent>, Consumer<ServerEvent>> replaying = new HashMap<>();
+    private final EventLog log;
+
+    EventsBus() {
+        this(null);
+    }
+
+    // with a log every event is appended before it is delivered, consumers see its offset and late ones can replay it
+    EventsBus(EventLog log) {
+        this.log = log;
+    }
 
     void addConsumer(Consumer<ServerEvent> consumer) {
-        consumers.add(consumer);
+        addConsumer(ALL_EVENTS, consumer);
+    }
+
+    // a consumer already subscribed to a shorter prefix sees these events anyway, and a longer prefix it was
+    // subscribed to is dropped, so each consumer sits on at most one node of a path and gets every event once
+    synchronized void addConsumer(String payloadPrefix, Consumer<ServerEvent> consumer) {
+        var node = root;
+        for (int index = 0; index < payloadPrefix.length(); index++) {
+            if (node.contains(consumer)) {
+                return;
+            }
+            node = node.children.computeIfAbsent(payloadPrefix.charAt(index), character -> new TopicNode());
+        }
+        if (node.add(consumer)) {
+            node.children.values().removeIf(child -> child.removeEverywhere(consumer));
+        }
+    }
+
+    // replays the log from the offset without blocking publishers, then finishes the last few events and
+    // subscribes while appends are paused; live events the replay already covered are skipped by their offset
+    void addConsumer(String payloadPrefix, Consumer<ServerEvent> consumer, long fromOffset) {
+        if (log == null) {
+            throw new IllegalStateException("Replay requires an event log");
+        }
+        Consumer<ServerEvent> matching = event -> {
+            if (matches(event, payloadPrefix)) {
+                consumer.accept(event);
+            }
+        };
+        long offset = log.replay(fromOffset, matching);
+        synchronized (log) {
+            long liveFrom = log.replay(offset, matching);
+            Consumer<ServerEvent> live = event -> {
+                if (event.getOffset() >= liveFrom) {
+                    consumer.accept(event);
+                }
+            };
+            synchronized (this) {
+                replaying.put(consumer, live);
+                addConsumer(payloadPrefix, live);
+            }
+        }
+    }
+
+    // the consumer is called on its own thread, publishers only hand the event over to its mailbox;
+    // a consumer that already has a mailbox keeps it, also when it subscribes to another prefix
+    synchronized void addConsumer(String payloadPrefix, Consumer<ServerEvent> consumer,
+                                  int mailboxCapacity, OverflowPolicy overflowPolicy) {
+        var mailbox = mailboxes.get(consumer);
+        if (mailbox == null) {
+            mailbox = new Mailbox(consumer, mailboxCapacity, overflowPolicy);
+            mailboxes.put(consumer, mailbox);
+        }
+        addConsumer(payloadPrefix, mailbox);
+    }
+
+    synchronized void removeConsumer(Consumer<ServerEvent> consumer) {
+        var mailbox = mailboxes.remove(consumer);
+        if (mailbox != null) {
+            root.removeEverywhere(mailbox);
+            mailbox.close();
+        }
+        var live = replaying.remove(consumer);
+        if (live != null) {
+            root.removeEverywhere(live);
+        }
+        root.removeEverywhere(consumer);
+    }
+
+    private static boolean matches(ServerEvent event, String payloadPrefix) {
+        var payload = event.getPayload();
+        return payload == null ? payloadPrefix.isEmpty() : payload.startsWith(payloadPrefix);
     }
 
+    Map<Consumer<ServerEvent>, MailboxMetrics> mailboxMetrics() {
+        var metrics = new HashMap<Consumer<ServerEvent>, MailboxMetrics>();
+        mailboxes.forEach((consumer, mailbox) -> metrics.put(consumer, mailbox.metrics()));
+        return metrics;
+    }
+
+    // trie nodes below the root, removing consumers prunes the ones nobody needs anymore
+    int topicCount() {
+        return root.descendants();
+    }
+
+    // with a log only the append is serialized, delivery runs on the publishing thread outside the lock
     void publish(ServerEvent event) {
-        consumers.forEach(consumer -> consumer.accept(event));
+        deliver(log == null ? event : event.withOffset(log.append(event)));
+    }
+
+    private void deliver(ServerEvent event) {
+        var payload = event.getPayload();
+        var node = root;
+        node.deliver(event);
+        if (payload == null) {
+            return;
+        }
+        for (int index = 0; index < payload.length(); index++) {
+            node = node.children.get(payload.charAt(index));
+            if (node == null) {
+                return;
+            }
+            node.deliver(event);
+        }
+    }
+
+    // consumer arrays are never modified, subscribing swaps in a copy, so publishing reads without locking
+    private static class TopicNode {
+
+        @SuppressWarnings("unchecked")
+        private static final Consumer<ServerEvent>[] NO_CONSUMERS = new Consumer[0];
+
+        private final Map<Character, TopicNode> children = new ConcurrentHashMap<>();
+        private volatile Consumer<ServerEvent>[] consumers = NO_CONSUMERS;
+
+        boolean contains(Consumer<ServerEvent> consumer) {
+            for (Consumer<ServerEvent> existing : consumers) {
+                if (existing == consumer) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean add(Consumer<ServerEvent> consumer) {
+            if (contains(consumer)) {
+                return false;
+            }
+            var current = consumers;
+            var updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = consumer;
+            consumers = updated;
+            return true;
+        }
+
+        // returns whether the node is left without consumers and children, so the parent can prune it
+        boolean removeEverywhere(Consumer<ServerEvent> consumer) {
+            var current = consumers;
+            var updated = Arrays.copyOf(current, current.length);
+            int size = 0;
+            for (Consumer<ServerEvent> existing : current) {
+                if (existing != consumer) {
+                    updated[size++] = existing;
+                }
+            }
+            if (size != current.length) {
+                consumers = Arrays.copyOf(updated, size);
+            }
+            children.values().removeIf(child -> child.removeEverywhere(consumer));
+            return size == 0 && children.isEmpty();
+        }
+
+        int descendants() {
+            int count = 0;
+            for (TopicNode child : children.values()) {
+                count += 1 + child.descendants();
+            }
+            return count;
+        }
+
+        void deliver(ServerEvent event) {
+            for (Consumer<ServerEvent> consumer : consumers) {
+                consumer.accept(event);
+            }
+        }
+
     }
 
 }
@@ -0,0 +1,130 @@
+package pl.training.patterns.behavioral.observer;
+
+import lombok.extern.java.Log;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+// bounded queue with its own delivery thread in front of a consumer, so a slow consumer
+// only fills its own mailbox and never delays publishers or the other consumers
+@Log
+class Mailbox implements Consumer<ServerEvent>, AutoCloseable {
+
+    private static final int SAMPLE_RATE = 10;
+    private static final long CLOSE_CHECK_MILLIS = 10;
+
+    private final Consumer<ServerEvent> consumer;
+    private final BlockingQueue<ServerEvent> queue;
+    private final OverflowPolicy overflowPolicy;
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+    private final Thread worker;
+    private volatile boolean closed;
+
+    Mailbox(Consumer<ServerEvent> consumer, int capacity, OverflowPolicy overflowPolicy) {
+        this.consumer = consumer;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.worker = new Thread(this::deliverAll, "mailbox-" + consumer.getClass().getSimpleName());
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // events offered after close() are counted as dropped, also when close() races with the offer
+    @Override
+    public void accept(ServerEvent event) {
+        if (closed) {
+            dropped.incrementAndGet();
+            return;
+        }
+        if (!queue.offer(event)) {
+            overflow(event);
+        }
+        if (closed && queue.remove(event)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    MailboxMetrics metrics() {
+        return new MailboxMetrics(queue.size(), delivered.get(), failed.get(), dropped.get());
+    }
+
+    // events still queued are not delivered but counted as dropped, producers blocked on a full mailbox give up
+    @Override
+    public void close() {
+        closed = true;
+        worker.interrupt();
+        dropQueued();
+    }
+
+    private void overflow(ServerEvent event) {
+        switch (overflowPolicy) {
+            case BLOCK -> put(event);
+            case DROP_OLDEST -> replaceOldest(event);
+            case DROP_NEWEST -> dropped.incrementAndGet();
+            // keeps every n-th overflowing event so a lagging consumer still sees a thinned out, recent stream
+            case SAMPLE -> {
+                if (overflowed.incrementAndGet() % SAMPLE_RATE == 0) {
+                    replaceOldest(event);
+                } else {
+                    dropped.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    // waits in short steps instead of put(), so close() releases a producer blocked on a full mailbox
+    private void put(ServerEvent event) {
+        try {
+            while (!queue.offer(event, CLOSE_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (closed) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void replaceOldest(ServerEvent event) {
+        while (!queue.offer(event)) {
+            if (queue.poll() != null) {
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    private void dropQueued() {
+        while (queue.poll() != null) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void deliverAll() {
+        try {
+            while (!closed) {
+                var event = queue.take();
+                try {
+                    consumer.accept(event);
+                    delivered.incrementAndGet();
+                } catch (RuntimeException exception) {
+                    failed.incrementAndGet();
+                    log.log(Level.WARNING, "Consumer failed to handle event", exception);
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            dropQueued();
+        }
+    }
+
+}
@@ -0,0 +1,4 @@
+package pl.training.patterns.behavioral.observer;
+
+public record MailboxMetrics(int lag, long delivered, long failed, long dropped) {
+}
@@ -0,0 +1,10 @@
+package pl.training.patterns.behavioral.observer;
+
+public enum OverflowPolicy {
+
+    BLOCK,
+    DROP_OLDEST,
+    DROP_NEWEST,
+    SAMPLE
+
+}
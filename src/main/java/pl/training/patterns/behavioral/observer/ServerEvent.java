@@ -1,12 +1,26 @@
 package pl.training.patterns.behavioral.observer;
 
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.With;
 
 @Getter
 @Builder
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
 class ServerEvent {
 
+    static final long NO_OFFSET = -1;
+
     private String payload;
+    // position in the bus EventLog, consumers can store it and replay from the next one after a restart
+    @With
+    @Builder.Default
+    private long offset = NO_OFFSET;
+
+    ServerEvent(String payload) {
+        this(payload, NO_OFFSET);
+    }
 
 }
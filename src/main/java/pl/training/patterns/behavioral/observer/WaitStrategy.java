@@ -0,0 +1,90 @@
+package pl.training.patterns.behavioral.observer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+// how a consumer with nothing to read waits for the next publish: trades latency for cpu usage
+public interface WaitStrategy {
+
+    // returns once available is true, or earlier: callers check again and call await in a loop
+    void await(BooleanSupplier available);
+
+    void signalAll();
+
+    static WaitStrategy busySpin() {
+        return new WaitStrategy() {
+
+            @Override
+            public void await(BooleanSupplier available) {
+                Thread.onSpinWait();
+            }
+
+            @Override
+            public void signalAll() {
+            }
+
+        };
+    }
+
+    static WaitStrategy yielding() {
+        return new WaitStrategy() {
+
+            @Override
+            public void await(BooleanSupplier available) {
+                Thread.yield();
+            }
+
+            @Override
+            public void signalAll() {
+            }
+
+        };
+    }
+
+    static WaitStrategy blocking() {
+        return new BlockingWaitStrategy();
+    }
+
+    class BlockingWaitStrategy implements WaitStrategy {
+
+        private final Lock lock = new ReentrantLock();
+        private final Condition published = lock.newCondition();
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        // the waiter registers before it rechecks under the lock, so a publisher that skips the lock
+        // because nobody waits has already made its event visible to that recheck
+        @Override
+        public void await(BooleanSupplier available) {
+            lock.lock();
+            waiters.incrementAndGet();
+            try {
+                while (!available.getAsBoolean()) {
+                    published.await();
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            } finally {
+                waiters.decrementAndGet();
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void signalAll() {
+            if (waiters.get() == 0) {
+                return;
+            }
+            lock.lock();
+            try {
+                published.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+    }
+
+}
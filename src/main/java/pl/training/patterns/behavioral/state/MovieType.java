@@ -3,6 +3,10 @@ package pl.training.patterns.behavioral.state;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
 @Getter
 @AllArgsConstructor
 public enum MovieType {
@@ -11,16 +15,53 @@ public enum MovieType {
     CHILDREN(3, 1.5, 1.5),
     NEW_RELEASE(0, 0, 3);
 
+    private static final Duration DAY = Duration.ofDays(1);
+
     private final int freeRentalPeriodInDays;
     private final double initialCost;
     private final double costPerDay;
 
     double getValueFor(long periodInDays) {
-        return getInitialCost() + getValueForPeriod(periodInDays);
+        return getInitialCost() + getValueForPeriod(checkPeriod(periodInDays));
+    }
+
+    // every started day is charged
+    double getValueFor(Duration period) {
+        if (period.isNegative()) {
+            throw new IllegalArgumentException("Rental period must not be negative");
+        }
+        long days = period.toDays();
+        if (period.compareTo(DAY.multipliedBy(days)) > 0) {
+            days++;
+        }
+        return getValueFor(days);
+    }
+
+    double getValueFor(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Rental cannot end before it starts");
+        }
+        return getValueFor(ChronoUnit.DAYS.between(from, to));
+    }
+
+    double[] valuesFor(long[] periodsInDays) {
+        var values = new double[periodsInDays.length];
+        for (int i = 0; i < periodsInDays.length; i++) {
+            values[i] = initialCost + getValueForPeriod(checkPeriod(periodsInDays[i]));
+        }
+        return values;
+    }
+
+    private static long checkPeriod(long periodInDays) {
+        if (periodInDays < 0) {
+            throw new IllegalArgumentException("Rental period must not be negative");
+        }
+        return periodInDays;
     }
 
+    // days inside the free period cost nothing; max before subtracting cannot overflow
     private double getValueForPeriod(long periodInDays) {
-        return (periodInDays - getFreeRentalPeriodInDays()) * getCostPerDay();
+        return (Math.max(periodInDays, freeRentalPeriodInDays) - freeRentalPeriodInDays) * costPerDay;
     }
 
 }
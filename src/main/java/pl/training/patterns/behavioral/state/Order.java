@@ -2,6 +2,9 @@ package pl.training.patterns.behavioral.state;
 
 import lombok.RequiredArgsConstructor;
 
+import java.time.Duration;
+import java.time.LocalDate;
+
 @RequiredArgsConstructor
 public class Order {
 
@@ -11,4 +14,16 @@ public class Order {
         return movieType.getValueFor(periodInDays);
     }
 
+    public double getTotalValue(Duration period) {
+        return movieType.getValueFor(period);
+    }
+
+    public double getTotalValue(LocalDate from, LocalDate to) {
+        return movieType.getValueFor(from, to);
+    }
+
+    public double[] getTotalValues(long[] periodsInDays) {
+        return movieType.valuesFor(periodsInDays);
+    }
+
 }
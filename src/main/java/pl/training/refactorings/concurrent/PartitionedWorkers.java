@@ -0,0 +1,189 @@
+package pl.training.refactorings.concurrent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// one long-running worker per partition takes batches of items from its own bounded queue, so items of
+// a partition are processed in submission order by a single thread while partitions run in parallel;
+// the submitting thread is the only producer and never gets more than a few batches ahead of a worker
+public class PartitionedWorkers<T> implements AutoCloseable {
+
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private final String name;
+    private final int batchSize;
+    private final List<T> endOfItems = new ArrayList<>(0);
+    private final List<BlockingQueue<List<T>>> queues;
+    private final List<List<T>> batches;
+    private final List<Future<?>> workers;
+    private boolean finished;
+
+    public PartitionedWorkers(String name, ExecutorService pool, int partitions, int batchSize, int queuedBatches,
+                              WorkerFactory<T> workerFactory) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("Partitions count must be positive");
+        }
+        if (batchSize <= 0 || queuedBatches <= 0) {
+            throw new IllegalArgumentException("Batch size and queued batches must be positive");
+        }
+        this.name = name;
+        this.batchSize = batchSize;
+        this.queues = new ArrayList<>(partitions);
+        this.batches = new ArrayList<>(partitions);
+        this.workers = new ArrayList<>(partitions);
+        for (int partition = 0; partition < partitions; partition++) {
+            var queue = new ArrayBlockingQueue<List<T>>(queuedBatches);
+            int workerPartition = partition;
+            queues.add(queue);
+            batches.add(new ArrayList<>(batchSize));
+            workers.add(pool.submit(() -> work(queue, workerFactory, workerPartition)));
+        }
+    }
+
+    public int partitions() {
+        return queues.size();
+    }
+
+    public void submit(int partition, T item) {
+        var batch = batches.get(partition);
+        batch.add(item);
+        if (batch.size() == batchSize) {
+            enqueue(partition, batch);
+            batches.set(partition, new ArrayList<>(batchSize));
+        }
+    }
+
+    // hands over the remaining items and waits until every worker is done, rethrowing the first failure
+    public void finish() {
+        for (int partition = 0; partition < partitions(); partition++) {
+            var batch = batches.get(partition);
+            if (!batch.isEmpty()) {
+                enqueue(partition, batch);
+            }
+            end(partition);
+        }
+        finished = true;
+        for (Future<?> worker : workers) {
+            join(worker);
+        }
+    }
+
+    // without finish the queued items are dropped and the workers are told to stop,
+    // after clearing a queue the end marker always fits because this thread is the only producer
+    @Override
+    public void close() {
+        if (!finished) {
+            finished = true;
+            for (BlockingQueue<List<T>> queue : queues) {
+                queue.clear();
+                queue.offer(endOfItems);
+            }
+        }
+    }
+
+    private Void work(BlockingQueue<List<T>> queue, WorkerFactory<T> workerFactory, int partition) throws Exception {
+        try (var worker = workerFactory.open(partition)) {
+            for (var batch = take(queue); batch != endOfItems; batch = take(queue)) {
+                for (T item : batch) {
+                    worker.process(item);
+                }
+            }
+        }
+        return null;
+    }
+
+    // a worker blocked on its queue lets a ForkJoinPool start a spare thread, so a pool with fewer threads
+    // than partitions still runs every worker instead of leaving the last ones queued behind blocked ones
+    private List<T> take(BlockingQueue<List<T>> queue) throws InterruptedException {
+        var blocker = new ForkJoinPool.ManagedBlocker() {
+
+            private List<T> batch;
+
+            @Override
+            public boolean block() throws InterruptedException {
+                if (batch == null) {
+                    batch = queue.take();
+                }
+                return true;
+            }
+
+            @Override
+            public boolean isReleasable() {
+                if (batch == null) {
+                    batch = queue.poll();
+                }
+                return batch != null;
+            }
+
+        };
+        ForkJoinPool.managedBlock(blocker);
+        return blocker.batch;
+    }
+
+    private void enqueue(int partition, List<T> batch) {
+        while (!offer(queues.get(partition), batch)) {
+            if (workers.get(partition).isDone()) {
+                join(workers.get(partition));
+                throw new IllegalStateException(name + " worker stopped");
+            }
+        }
+    }
+
+    // a worker that failed takes no more items, its failure is reported when it is joined
+    private void end(int partition) {
+        while (!workers.get(partition).isDone()) {
+            if (offer(queues.get(partition), endOfItems)) {
+                return;
+            }
+        }
+    }
+
+    private boolean offer(BlockingQueue<List<T>> queue, List<T> batch) {
+        try {
+            return queue.offer(batch, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(name + " interrupted", exception);
+        }
+    }
+
+    private void join(Future<?> worker) {
+        try {
+            worker.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(name + " interrupted", exception);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+            throw new IllegalStateException(name + " failed", exception.getCause());
+        }
+    }
+
+    public interface Worker<T> extends AutoCloseable {
+
+        void process(T item) throws Exception;
+
+        @Override
+        default void close() throws Exception {
+        }
+
+    }
+
+    public interface WorkerFactory<T> {
+
+        Worker<T> open(int partition) throws Exception;
+
+    }
+
+}
@@ -0,0 +1,67 @@
+package pl.training.refactorings.movies;
+
+import pl.training.refactorings.newmovies.MovieType;
+import pl.training.refactorings.newmovies.Statement;
+import pl.training.refactorings.newmovies.rental.RentalCalculator;
+import pl.training.refactorings.newmovies.rental.TariffRegistry;
+import pl.training.refactorings.newmovies.rental.TariffSnapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+class StatementEngine {
+
+    private static final Statement STATEMENT = new Statement();
+
+    // the legacy statement charged nothing for an unknown price code, but still gave the renter point
+    private static final RentalCalculator UNPRICED = new RentalCalculator() {
+
+        @Override
+        public double calculatePrice(int daysRented) {
+            return 0;
+        }
+
+        @Override
+        public int calculateFrequentRenterPoints(int daysRented) {
+            return 1;
+        }
+
+    };
+
+    static String statement(String customerName, List<Rental> rentals) {
+        var result = new StringBuilder();
+        try {
+            writeTo(customerName, rentals, result);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return result.toString();
+    }
+
+    private static void writeTo(String customerName, List<Rental> rentals, Appendable output) throws IOException {
+        double totalAmount = 0;
+        int frequentRenterPoints = 0;
+        var tariffs = TariffRegistry.shared().snapshot();
+        STATEMENT.writeHeader(customerName, output);
+        for (Rental each : rentals) {
+            var calculator = toCalculator(each.getMovie().getPriceCode(), tariffs);
+            double price = calculator.calculatePrice(each.getDaysRented());
+            STATEMENT.writeLine(each.getMovie().getTitle(), price, output);
+            totalAmount += price;
+            frequentRenterPoints += calculator.calculateFrequentRenterPoints(each.getDaysRented());
+        }
+        STATEMENT.writeFooter(totalAmount, frequentRenterPoints, output);
+    }
+
+    // price codes are read when the statement is created, because Movie.setPriceCode can change them at any time
+    private static RentalCalculator toCalculator(int priceCode, TariffSnapshot tariffs) {
+        return switch (priceCode) {
+            case Movie.REGULAR -> tariffs.calculatorFor(MovieType.REGULAR);
+            case Movie.NEW_RELEASE -> tariffs.calculatorFor(MovieType.NEW_RELEASE);
+            case Movie.CHILDRENS -> tariffs.calculatorFor(MovieType.CHILDREN);
+            default -> UNPRICED;
+        };
+    }
+
+}
@@ -0,0 +1,99 @@
+package pl.training.refactorings.newmovies;
+
+import pl.training.refactorings.concurrent.PartitionedWorkers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+// customers are dealt to partitions in turn, customer n goes to statements-(n % partitions).txt,
+// every partition file is written by its own worker
+public class BulkStatementWriter {
+
+    private static final String STATEMENT_SEPARATOR = "\n\n";
+    private static final int BATCH_SIZE = 64;
+    private static final int QUEUED_BATCHES = 4;
+
+    private final Statement statement;
+    private final ForkJoinPool pool;
+    private final int partitions;
+
+    public BulkStatementWriter(Statement statement, ForkJoinPool pool, int partitions) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("Partitions count must be positive");
+        }
+        this.statement = statement;
+        this.pool = pool;
+        this.partitions = partitions;
+    }
+
+    public List<Path> write(List<Customer> customers, Path directory) {
+        return write(customers.iterator(), directory);
+    }
+
+    public List<Path> write(Stream<Customer> customers, Path directory) {
+        return write(customers.iterator(), directory);
+    }
+
+    public List<Path> write(Iterator<Customer> customers, Path directory) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        var files = new ArrayList<Path>(partitions);
+        for (int partition = 0; partition < partitions; partition++) {
+            files.add(directory.resolve("statements-" + partition + ".txt"));
+        }
+        try (var workers = new PartitionedWorkers<Customer>("Statement rendering", pool, partitions, BATCH_SIZE, QUEUED_BATCHES,
+                partition -> new PartitionWriter(files.get(partition)))) {
+            for (int customer = 0; customers.hasNext(); customer++) {
+                workers.submit(customer % partitions, customers.next());
+            }
+            workers.finish();
+        }
+        return files;
+    }
+
+    // one writer per file lives as long as its worker, its fixed size buffer and encoder are reused
+    // for every statement and flushed to the file whenever the buffer fills up
+    private class PartitionWriter implements PartitionedWorkers.Worker<Customer> {
+
+        private final FileChannel channel;
+        private final Writer writer;
+
+        PartitionWriter(Path file) throws IOException {
+            channel = FileChannel.open(file, CREATE, WRITE, TRUNCATE_EXISTING);
+            writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void process(Customer customer) throws IOException {
+            statement.writeTo(customer, writer);
+            writer.write(STATEMENT_SEPARATOR);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (channel) {
+                writer.close();
+            }
+        }
+
+    }
+
+}
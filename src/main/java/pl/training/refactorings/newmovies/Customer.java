@@ -1,8 +1,11 @@
 package pl.training.refactorings.newmovies;
 
 import pl.training.refactorings.newmovies.rental.Rental;
+import pl.training.refactorings.newmovies.rental.TariffRegistry;
+import pl.training.refactorings.newmovies.rental.TariffSnapshot;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -10,6 +13,7 @@ public class Customer {
 
     private final String name;
     private final List<Rental> rentals;
+    private volatile PricedSummary pricedSummary;
 
     public Customer(String name) {
         this.name = name;
@@ -17,7 +21,26 @@ public class Customer {
     }
 
     public void addRental(Rental rental) {
-        rentals.add(rental);
+        addRentals(List.of(rental));
+    }
+
+    // a summary priced with the current tariffs is kept as a running total, adding a rental only prices that rental
+    public void addRentals(Collection<Rental> newRentals) {
+        rentals.addAll(newRentals);
+        var current = pricedSummary;
+        if (current == null) {
+            return;
+        }
+        var tariffs = TariffRegistry.shared().snapshot();
+        if (current.tariffVersion() != tariffs.version()) {
+            pricedSummary = null;
+            return;
+        }
+        var summary = current.summary();
+        for (Rental rental : newRentals) {
+            summary = summary.plus(rental, tariffs);
+        }
+        pricedSummary = new PricedSummary(summary, tariffs.version());
     }
 
     public String getName() {
@@ -28,4 +51,29 @@ public class Customer {
         return Collections.unmodifiableList(rentals);
     }
 
-}
\ No newline at end of file
+    public double getTotalAmount() {
+        return getRentalSummary().totalAmount();
+    }
+
+    public int getFrequentRenterPoints() {
+        return getRentalSummary().frequentRenterPoints();
+    }
+
+    // priced on first use by whichever thread asks, and again only after rentals or tariffs change
+    public RentalSummary getRentalSummary() {
+        return getRentalSummary(TariffRegistry.shared().snapshot());
+    }
+
+    public RentalSummary getRentalSummary(TariffSnapshot tariffs) {
+        var current = pricedSummary;
+        if (current == null || current.tariffVersion() != tariffs.version()) {
+            current = new PricedSummary(RentalSummary.of(rentals, tariffs), tariffs.version());
+            pricedSummary = current;
+        }
+        return current.summary();
+    }
+
+    private record PricedSummary(RentalSummary summary, long tariffVersion) {
+    }
+
+}
@@ -0,0 +1,47 @@
+package pl.training.refactorings.newmovies;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class MovieCatalog {
+
+    private final Map<String, String> titles = new ConcurrentHashMap<>();
+    private final Map<Movie, Movie> movies = new ConcurrentHashMap<>();
+    private final Map<Long, Movie> moviesById = new ConcurrentHashMap<>();
+
+    public Movie register(long id, String title, MovieType type) {
+        var registered = moviesById.get(id);
+        if (registered == null) {
+            var movie = intern(title, type);
+            registered = moviesById.putIfAbsent(id, movie);
+            if (registered == null) {
+                return movie;
+            }
+        }
+        if (!registered.equals(new Movie(title, type))) {
+            throw new IllegalArgumentException("Movie " + id + " is already registered as " + registered);
+        }
+        return registered;
+    }
+
+    public Optional<Movie> findById(long id) {
+        return Optional.ofNullable(moviesById.get(id));
+    }
+
+    // equal movies share one instance, and equal titles share one String even across types
+    public Movie intern(String title, MovieType type) {
+        var candidate = new Movie(title, type);
+        var movie = movies.get(candidate);
+        if (movie != null) {
+            return movie;
+        }
+        var pooledTitle = titles.computeIfAbsent(title, key -> key);
+        return movies.computeIfAbsent(new Movie(pooledTitle, type), key -> key);
+    }
+
+    public int size() {
+        return movies.size();
+    }
+
+}
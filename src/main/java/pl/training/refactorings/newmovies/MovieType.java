@@ -1,4 +1,18 @@
 package pl.training.refactorings.newmovies;
 
+import pl.training.refactorings.newmovies.rental.RentalCalculator;
+import pl.training.refactorings.newmovies.rental.TariffRegistry;
+
 public enum MovieType {
+
+    REGULAR,
+    NEW_RELEASE,
+    CHILDREN;
+
+    // resolved on every call, so a reloaded or newly effective tariff applies without a redeploy;
+    // pricing many rentals together should take one TariffRegistry snapshot instead
+    public RentalCalculator getCalculator() {
+        return TariffRegistry.shared().calculatorFor(this);
+    }
+
 }
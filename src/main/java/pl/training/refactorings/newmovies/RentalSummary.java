@@ -0,0 +1,30 @@
+package pl.training.refactorings.newmovies;
+
+import pl.training.refactorings.newmovies.rental.Rental;
+import pl.training.refactorings.newmovies.rental.TariffRegistry;
+import pl.training.refactorings.newmovies.rental.TariffSnapshot;
+
+import java.util.List;
+
+public record RentalSummary(double totalAmount, int frequentRenterPoints) {
+
+    public static final RentalSummary EMPTY = new RentalSummary(0, 0);
+
+    public static RentalSummary of(List<Rental> rentals) {
+        return of(rentals, TariffRegistry.shared().snapshot());
+    }
+
+    public static RentalSummary of(List<Rental> rentals, TariffSnapshot tariffs) {
+        var summary = EMPTY;
+        for (Rental rental : rentals) {
+            summary = summary.plus(rental, tariffs);
+        }
+        return summary;
+    }
+
+    public RentalSummary plus(Rental rental, TariffSnapshot tariffs) {
+        return new RentalSummary(totalAmount + rental.calculatePrice(tariffs),
+                frequentRenterPoints + rental.calculateFrequentRenterPoints(tariffs));
+    }
+
+}
@@ -1,8 +1,10 @@
 package pl.training.refactorings.newmovies;
 
 import pl.training.refactorings.newmovies.rental.Rental;
+import pl.training.refactorings.newmovies.rental.TariffRegistry;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 public class Statement {
 
@@ -11,38 +13,44 @@ public class Statement {
 
     public String create(Customer customer) {
         var result = new StringBuilder();
-        result.append("Rental Record for ").append(customer.getName()).append(LINE_BREAK);
-
-        for (Rental rental : customer.getRentals()) {
-            result.append(INDENT)
-                    .append(rental.movie().title())
-                    .append(INDENT)
-                    //.append(rental.calculatePrice())
-                    .append(LINE_BREAK);
+        try {
+            writeTo(customer, result);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
         }
-
-        var summary = createSummary(customer.getRentals());
-        result.append("Amount owed is ").append(summary.totalAmount()).append(LINE_BREAK);
-        result.append("You earned ")
-                .append(summary.frequentRenterPoints())
-                .append(" frequent renter points");
-
         return result.toString();
     }
 
-    private RentalSummary createSummary(List<Rental> rentals) {
-        double totalAmount = 0;
-        int frequentRenterPoints = 0;
-
-        for (Rental rental : rentals) {
-            //totalAmount += rental.calculatePrice();
-            //frequentRenterPoints += rental.calculateFrequentRenterPoints();
+    // the statement is appended piece by piece, it is never built as a whole in memory; for many statements
+    // going to one channel wrap it once with Channels.newWriter and append them all to that writer
+    // lines and totals are priced with one tariff snapshot, so a reload while writing never mixes versions
+    public void writeTo(Customer customer, Appendable output) throws IOException {
+        var tariffs = TariffRegistry.shared().snapshot();
+        writeHeader(customer.getName(), output);
+        for (Rental rental : customer.getRentals()) {
+            writeLine(rental.movie().title(), rental.calculatePrice(tariffs), output);
         }
+        var summary = customer.getRentalSummary(tariffs);
+        writeFooter(summary.totalAmount(), summary.frequentRenterPoints(), output);
+    }
 
-        return new RentalSummary(totalAmount, frequentRenterPoints);
+    public void writeHeader(String customerName, Appendable output) throws IOException {
+        output.append("Rental Record for ").append(customerName).append(LINE_BREAK);
     }
 
-    private record RentalSummary(double totalAmount, int frequentRenterPoints) {
+    public void writeLine(String title, double price, Appendable output) throws IOException {
+        output.append(INDENT)
+                .append(title)
+                .append(INDENT)
+                .append(String.valueOf(price))
+                .append(LINE_BREAK);
+    }
+
+    public void writeFooter(double totalAmount, int frequentRenterPoints, Appendable output) throws IOException {
+        output.append("Amount owed is ").append(String.valueOf(totalAmount)).append(LINE_BREAK);
+        output.append("You earned ")
+                .append(String.valueOf(frequentRenterPoints))
+                .append(" frequent renter points");
     }
 
-}
\ No newline at end of file
+}
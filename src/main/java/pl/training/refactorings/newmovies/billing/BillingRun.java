@@ -0,0 +1,162 @@
+package pl.training.refactorings.newmovies.billing;
+
+import pl.training.refactorings.newmovies.Customer;
+import pl.training.refactorings.newmovies.rental.TariffRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+// partitions are numbered in the order customers arrive, so a resumed run must read the same source in the same order
+public class BillingRun {
+
+    private static final String SEPARATOR = ",";
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+    private static final int IN_FLIGHT_PARTITIONS_PER_THREAD = 2;
+
+    private final ForkJoinPool pool;
+    private final int partitionSize;
+    private final Path checkpointDirectory;
+
+    public BillingRun(ForkJoinPool pool, int partitionSize, Path checkpointDirectory) {
+        if (partitionSize <= 0) {
+            throw new IllegalArgumentException("Partition size must be positive");
+        }
+        this.pool = pool;
+        this.partitionSize = partitionSize;
+        this.checkpointDirectory = checkpointDirectory;
+    }
+
+    // a failed run is resumed by running it again with the same id, the checkpoint is deleted once the run succeeds
+    public BillingTotals run(String runId, Iterator<Customer> customers) throws IOException {
+        var checkpoint = checkpointDirectory.resolve(runId + CHECKPOINT_SUFFIX);
+        var completed = readCheckpoint(checkpoint);
+        var totals = BillingTotals.EMPTY;
+        for (BillingTotals partitionTotals : completed.values()) {
+            totals = totals.plus(partitionTotals);
+        }
+
+        int maxInFlight = pool.getParallelism() * IN_FLIGHT_PARTITIONS_PER_THREAD;
+        var inFlight = new ArrayDeque<BilledPartition>();
+        // only this thread writes and forces the checkpoint, so pool workers never wait on the disk
+        try (var checkpointChannel = FileChannel.open(checkpoint, CREATE, WRITE, APPEND)) {
+            int partition = 0;
+            while (customers.hasNext()) {
+                var batch = nextBatch(customers);
+                if (!completed.containsKey(partition)) {
+                    inFlight.add(new BilledPartition(partition, pool.submit(() -> bill(batch))));
+                }
+                partition++;
+                // bounds memory use for sources far bigger than the heap
+                if (inFlight.size() >= maxInFlight) {
+                    totals = totals.plus(complete(inFlight.poll(), checkpointChannel));
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                totals = totals.plus(complete(inFlight.poll(), checkpointChannel));
+            }
+        } finally {
+            inFlight.forEach(billedPartition -> billedPartition.totals().cancel(true));
+        }
+        Files.delete(checkpoint);
+        return totals;
+    }
+
+    private List<Customer> nextBatch(Iterator<Customer> customers) {
+        var batch = new ArrayList<Customer>(partitionSize);
+        while (batch.size() < partitionSize && customers.hasNext()) {
+            batch.add(customers.next());
+        }
+        return batch;
+    }
+
+    // the whole partition is priced with one tariff snapshot
+    private BillingTotals bill(List<Customer> customers) {
+        var tariffs = TariffRegistry.shared().snapshot();
+        var totals = BillingTotals.EMPTY;
+        for (Customer customer : customers) {
+            totals = totals.plus(customer.getRentalSummary(tariffs));
+        }
+        return totals;
+    }
+
+    private BillingTotals complete(BilledPartition billedPartition, FileChannel checkpointChannel) throws IOException {
+        var totals = join(billedPartition.totals());
+        markCompleted(billedPartition.partition(), totals, checkpointChannel);
+        return totals;
+    }
+
+    // partition,customers,totalAmount,frequentRenterPoints
+    private void markCompleted(int partition, BillingTotals totals, FileChannel checkpointChannel) throws IOException {
+        var line = partition + SEPARATOR + totals.customers() + SEPARATOR + totals.totalAmount() + SEPARATOR
+                + totals.frequentRenterPoints() + "\n";
+        var bytes = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            checkpointChannel.write(bytes);
+        }
+        checkpointChannel.force(false);
+    }
+
+    private Map<Integer, BillingTotals> readCheckpoint(Path checkpoint) throws IOException {
+        var completed = new HashMap<Integer, BillingTotals>();
+        if (!Files.exists(checkpoint)) {
+            return completed;
+        }
+        dropTornLine(checkpoint);
+        for (String line : Files.readAllLines(checkpoint)) {
+            String[] fields = line.split(SEPARATOR);
+            completed.put(Integer.parseInt(fields[0]), new BillingTotals(Long.parseLong(fields[1]),
+                    Double.parseDouble(fields[2]), Long.parseLong(fields[3])));
+        }
+        return completed;
+    }
+
+    // a crash can leave the last line half written, that partition is simply billed again
+    private void dropTornLine(Path checkpoint) throws IOException {
+        var content = Files.readAllBytes(checkpoint);
+        int length = content.length;
+        while (length > 0 && content[length - 1] != '\n') {
+            length--;
+        }
+        if (length < content.length) {
+            try (var channel = FileChannel.open(checkpoint, WRITE)) {
+                channel.truncate(length);
+            }
+        }
+    }
+
+    private static BillingTotals join(Future<BillingTotals> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Billing run interrupted", exception);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+            throw new IllegalStateException("Billing run failed", exception.getCause());
+        }
+    }
+
+    private record BilledPartition(int partition, Future<BillingTotals> totals) {
+    }
+
+}
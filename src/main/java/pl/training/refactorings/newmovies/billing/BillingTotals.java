@@ -0,0 +1,19 @@
+package pl.training.refactorings.newmovies.billing;
+
+import pl.training.refactorings.newmovies.RentalSummary;
+
+public record BillingTotals(long customers, double totalAmount, long frequentRenterPoints) {
+
+    public static final BillingTotals EMPTY = new BillingTotals(0, 0, 0);
+
+    public BillingTotals plus(RentalSummary summary) {
+        return new BillingTotals(customers + 1, totalAmount + summary.totalAmount(),
+                frequentRenterPoints + summary.frequentRenterPoints());
+    }
+
+    public BillingTotals plus(BillingTotals other) {
+        return new BillingTotals(customers + other.customers, totalAmount + other.totalAmount,
+                frequentRenterPoints + other.frequentRenterPoints);
+    }
+
+}
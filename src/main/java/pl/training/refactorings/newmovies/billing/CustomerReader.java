@@ -0,0 +1,85 @@
+package pl.training.refactorings.newmovies.billing;
+
+import pl.training.refactorings.newmovies.Customer;
+import pl.training.refactorings.newmovies.MovieCatalog;
+import pl.training.refactorings.newmovies.MovieType;
+import pl.training.refactorings.newmovies.rental.Rental;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// one rental per line: customerName,movieTitle,movieType,daysRented; rentals of a customer are on consecutive lines
+public class CustomerReader implements Iterator<Customer>, Closeable {
+
+    private static final String SEPARATOR = ",";
+    private static final int FIELDS = 4;
+
+    private final BufferedReader reader;
+    private final MovieCatalog catalog;
+    private String[] pendingRental;
+
+    public CustomerReader(Path file) throws IOException {
+        this(file, new MovieCatalog());
+    }
+
+    // rentals of the same movie share one Movie instance from the catalog
+    public CustomerReader(Path file, MovieCatalog catalog) throws IOException {
+        this.reader = Files.newBufferedReader(file);
+        this.catalog = catalog;
+        this.pendingRental = readRental();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return pendingRental != null;
+    }
+
+    @Override
+    public Customer next() {
+        if (pendingRental == null) {
+            throw new NoSuchElementException();
+        }
+        var customer = new Customer(pendingRental[0]);
+        do {
+            customer.addRental(toRental(pendingRental));
+            pendingRental = readRental();
+        } while (pendingRental != null && pendingRental[0].equals(customer.getName()));
+        return customer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String[] readRental() {
+        try {
+            String line;
+            do {
+                line = reader.readLine();
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            String[] fields = line.split(SEPARATOR);
+            if (fields.length != FIELDS) {
+                throw new IllegalArgumentException("Invalid rental: " + line);
+            }
+            return fields;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private Rental toRental(String[] fields) {
+        var movie = catalog.intern(fields[1], MovieType.valueOf(fields[2]));
+        return new Rental(movie, Integer.parseInt(fields[3]));
+    }
+
+}
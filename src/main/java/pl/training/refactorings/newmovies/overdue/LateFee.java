@@ -0,0 +1,4 @@
+package pl.training.refactorings.newmovies.overdue;
+
+public record LateFee(OpenRental rental, long overdueDays, double fee) {
+}
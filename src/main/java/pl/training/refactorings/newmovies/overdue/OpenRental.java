@@ -0,0 +1,8 @@
+package pl.training.refactorings.newmovies.overdue;
+
+import pl.training.refactorings.newmovies.rental.Rental;
+
+import java.time.LocalDate;
+
+public record OpenRental(long id, Rental rental, LocalDate dueDate) {
+}
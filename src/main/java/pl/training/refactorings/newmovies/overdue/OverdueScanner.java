@@ -0,0 +1,112 @@
+package pl.training.refactorings.newmovies.overdue;
+
+import lombok.extern.java.Log;
+import pl.training.refactorings.newmovies.rental.TariffRegistry;
+import pl.training.refactorings.newmovies.rental.TariffSnapshot;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+@Log
+public class OverdueScanner implements AutoCloseable {
+
+    private final TimingWheel<OpenRental> wheel;
+    private final Map<Long, OpenRental> openRentals = new HashMap<>();
+    private final Map<Long, OpenRental> overdueRentals = new LinkedHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    // ticked by the caller
+    public OverdueScanner(LocalDate today) {
+        this.wheel = new TimingWheel<>(today.toEpochDay());
+        this.scheduler = null;
+    }
+
+    // ticks itself every tickInterval, so a new day is noticed at most one interval late; close() stops it
+    public OverdueScanner(Clock clock, Duration tickInterval, Consumer<List<OpenRental>> onOverdue) {
+        if (tickInterval.isNegative() || tickInterval.isZero()) {
+            throw new IllegalArgumentException("Tick interval must be positive");
+        }
+        this.wheel = new TimingWheel<>(LocalDate.now(clock).toEpochDay());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            var thread = new Thread(task, "overdue-scanner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalNanos = tickInterval.toNanos();
+        scheduler.scheduleAtFixedRate(() -> tick(clock, onOverdue), intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // a rental becomes overdue on the first day after its due date
+    public synchronized void open(OpenRental rental) {
+        openRentals.put(rental.id(), rental);
+        wheel.schedule(rental.dueDate().toEpochDay() + 1, rental);
+    }
+
+    // the wheel entry is left in place and skipped when it comes up, which keeps closing O(1)
+    public synchronized void close(long rentalId) {
+        openRentals.remove(rentalId);
+        overdueRentals.remove(rentalId);
+    }
+
+    public synchronized List<OpenRental> tick(LocalDate today) {
+        var newlyOverdue = new ArrayList<OpenRental>();
+        for (OpenRental rental : wheel.advanceTo(today.toEpochDay())) {
+            if (openRentals.get(rental.id()) == rental) {
+                overdueRentals.put(rental.id(), rental);
+                newlyOverdue.add(rental);
+            }
+        }
+        return newlyOverdue;
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    // a failing listener must not cancel the periodic task, the rentals it missed stay in lateFees()
+    private void tick(Clock clock, Consumer<List<OpenRental>> onOverdue) {
+        try {
+            var newlyOverdue = tick(LocalDate.now(clock));
+            if (!newlyOverdue.isEmpty()) {
+                onOverdue.accept(newlyOverdue);
+            }
+        } catch (RuntimeException exception) {
+            log.log(Level.WARNING, "Overdue scan failed", exception);
+        }
+    }
+
+    public synchronized List<LateFee> lateFees() {
+        long today = wheel.getCurrentDay();
+        var fees = new ArrayList<LateFee>(overdueRentals.size());
+        var tariffs = TariffRegistry.shared().snapshot();
+        for (OpenRental rental : overdueRentals.values()) {
+            fees.add(lateFee(rental, today, tariffs));
+        }
+        return fees;
+    }
+
+    // the fee is what the extra days add to the price of the rental under its movie type tariff
+    private static LateFee lateFee(OpenRental openRental, long today, TariffSnapshot tariffs) {
+        long overdueDays = today - openRental.dueDate().toEpochDay();
+        var rental = openRental.rental();
+        var calculator = tariffs.calculatorFor(rental.movie().type());
+        int chargedDays = (int) Math.min(Integer.MAX_VALUE, rental.daysRented() + overdueDays);
+        double fee = calculator.calculatePrice(chargedDays) - calculator.calculatePrice(rental.daysRented());
+        return new LateFee(openRental, overdueDays, fee);
+    }
+
+}
@@ -0,0 +1,82 @@
+package pl.training.refactorings.newmovies.overdue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// hierarchical timing wheel with day resolution; level n has 64 slots, each 64^n days wide,
+// items move down a level when their slot comes up, so a tick only touches items due now
+class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final List<List<Item<T>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final List<T> due = new ArrayList<>();
+    private long currentDay;
+
+    TimingWheel(long currentDay) {
+        this.currentDay = currentDay;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    long getCurrentDay() {
+        return currentDay;
+    }
+
+    void schedule(long day, T value) {
+        place(new Item<>(day, value));
+    }
+
+    List<T> advanceTo(long day) {
+        while (currentDay < day) {
+            currentDay++;
+            cascade();
+            var expired = slot(0, currentDay);
+            for (Item<T> item : expired) {
+                due.add(item.value());
+            }
+            expired.clear();
+        }
+        var result = new ArrayList<>(due);
+        due.clear();
+        return result;
+    }
+
+    private void cascade() {
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((currentDay & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                var items = slot(level, currentDay);
+                var moved = new ArrayList<>(items);
+                items.clear();
+                moved.forEach(this::place);
+            }
+        }
+    }
+
+    private void place(Item<T> item) {
+        if (item.day() <= currentDay) {
+            due.add(item.value());
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            if ((item.day() >> shift) - (currentDay >> shift) < SLOTS) {
+                slot(level, item.day()).add(item);
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Day " + item.day() + " is too far ahead of " + currentDay);
+    }
+
+    private List<Item<T>> slot(int level, long day) {
+        return slots.get(level * SLOTS + (int) ((day >> (SLOT_BITS * level)) & SLOT_MASK));
+    }
+
+    private record Item<T>(long day, T value) {
+    }
+
+}
@@ -0,0 +1,94 @@
+package pl.training.refactorings.newmovies.rental;
+
+import pl.training.refactorings.newmovies.MovieType;
+
+import java.util.List;
+
+// prices with the tariffs of a single snapshot, so create one per billing batch rather than keeping it around
+public class BatchRentalCalculator {
+
+    private static final int TYPES = MovieType.values().length;
+
+    private final double[] basePrice = new double[TYPES];
+    private final double[] extraDayPrice = new double[TYPES];
+    private final int[] freeDays = new int[TYPES];
+    private final int[] minChargedDays = new int[TYPES];
+    private final int[] bonusPointThreshold = new int[TYPES];
+    private final int[] bonusPoints = new int[TYPES];
+
+    public BatchRentalCalculator() {
+        this(TariffRegistry.shared().snapshot());
+    }
+
+    // every tariff is expressed as base + max(minChargedDays, days - freeDays) * extraDayPrice,
+    // which lets one loop price all types with table lookups instead of a switch per rental
+    public BatchRentalCalculator(TariffSnapshot tariffs) {
+        for (MovieType type : MovieType.values()) {
+            int index = type.ordinal();
+            bonusPointThreshold[index] = Integer.MAX_VALUE;
+            var tariff = tariffs.tariffFor(type);
+            if (tariff instanceof Tariff loaded) {
+                basePrice[index] = loaded.basePrice();
+                extraDayPrice[index] = loaded.extraDayPrice();
+                freeDays[index] = loaded.freeDays();
+                bonusPointThreshold[index] = loaded.bonusPointThreshold();
+                bonusPoints[index] = 1;
+            } else if (tariff instanceof RegularRentalCalculator) {
+                basePrice[index] = RegularRentalCalculator.BASE_PRICE;
+                extraDayPrice[index] = RegularRentalCalculator.EXTRA_DAY_PRICE;
+                freeDays[index] = RegularRentalCalculator.FREE_DAYS;
+            } else if (tariff instanceof NewReleaseRentalCalculator) {
+                extraDayPrice[index] = NewReleaseRentalCalculator.DAILY_PRICE;
+                minChargedDays[index] = Integer.MIN_VALUE;
+                bonusPointThreshold[index] = NewReleaseRentalCalculator.BONUS_POINT_THRESHOLD;
+                bonusPoints[index] = 1;
+            } else if (tariff instanceof ChildrenRentalCalculator) {
+                basePrice[index] = ChildrenRentalCalculator.BASE_PRICE;
+                extraDayPrice[index] = ChildrenRentalCalculator.EXTRA_DAY_PRICE;
+                freeDays[index] = ChildrenRentalCalculator.FREE_DAYS;
+            } else {
+                throw new IllegalArgumentException("Tariff of " + type + " can not be priced in batches");
+            }
+        }
+    }
+
+    public void calculatePrices(int[] typeOrdinals, int[] daysRented, double[] prices) {
+        checkLengths(typeOrdinals, daysRented, prices.length);
+        for (int i = 0; i < typeOrdinals.length; i++) {
+            int type = typeOrdinals[i];
+            prices[i] = basePrice[type] + Math.max(minChargedDays[type], daysRented[i] - freeDays[type]) * extraDayPrice[type];
+        }
+    }
+
+    public void calculateFrequentRenterPoints(int[] typeOrdinals, int[] daysRented, int[] points) {
+        checkLengths(typeOrdinals, daysRented, points.length);
+        for (int i = 0; i < typeOrdinals.length; i++) {
+            int type = typeOrdinals[i];
+            int aboveThreshold = (int) (((long) bonusPointThreshold[type] - daysRented[i]) >>> 63);
+            points[i] = 1 + bonusPoints[type] * aboveThreshold;
+        }
+    }
+
+    public static int[] typeOrdinals(List<Rental> rentals) {
+        var typeOrdinals = new int[rentals.size()];
+        for (int i = 0; i < typeOrdinals.length; i++) {
+            typeOrdinals[i] = rentals.get(i).movie().type().ordinal();
+        }
+        return typeOrdinals;
+    }
+
+    public static int[] daysRented(List<Rental> rentals) {
+        var daysRented = new int[rentals.size()];
+        for (int i = 0; i < daysRented.length; i++) {
+            daysRented[i] = rentals.get(i).daysRented();
+        }
+        return daysRented;
+    }
+
+    private static void checkLengths(int[] typeOrdinals, int[] daysRented, int resultLength) {
+        if (typeOrdinals.length != daysRented.length || typeOrdinals.length != resultLength) {
+            throw new IllegalArgumentException("Rental columns must have equal length");
+        }
+    }
+
+}
@@ -2,8 +2,8 @@ package pl.training.refactorings.newmovies.rental;
 
 public class NewReleaseRentalCalculator implements RentalCalculator {
     
-    private static final double DAILY_PRICE = 3.0;
-    private static final int BONUS_POINT_THRESHOLD = 1;
+    static final double DAILY_PRICE = 3.0;
+    static final int BONUS_POINT_THRESHOLD = 1;
 
     @Override
     public double calculatePrice(int daysRented) {
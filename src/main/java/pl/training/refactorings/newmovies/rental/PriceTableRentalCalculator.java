@@ -0,0 +1,40 @@
+package pl.training.refactorings.newmovies.rental;
+
+public class PriceTableRentalCalculator implements RentalCalculator {
+
+    public static final int DEFAULT_HORIZON_IN_DAYS = 60;
+
+    private final RentalCalculator calculator;
+    private final double[] prices;
+    private final int[] frequentRenterPoints;
+
+    public PriceTableRentalCalculator(RentalCalculator calculator) {
+        this(calculator, DEFAULT_HORIZON_IN_DAYS);
+    }
+
+    public PriceTableRentalCalculator(RentalCalculator calculator, int horizonInDays) {
+        if (horizonInDays < 0) {
+            throw new IllegalArgumentException("Horizon must not be negative");
+        }
+        this.calculator = calculator;
+        this.prices = new double[horizonInDays + 1];
+        this.frequentRenterPoints = new int[horizonInDays + 1];
+        for (int days = 0; days <= horizonInDays; days++) {
+            prices[days] = calculator.calculatePrice(days);
+            frequentRenterPoints[days] = calculator.calculateFrequentRenterPoints(days);
+        }
+    }
+
+    @Override
+    public double calculatePrice(int daysRented) {
+        return daysRented >= 0 && daysRented < prices.length ? prices[daysRented] : calculator.calculatePrice(daysRented);
+    }
+
+    @Override
+    public int calculateFrequentRenterPoints(int daysRented) {
+        return daysRented >= 0 && daysRented < frequentRenterPoints.length
+                ? frequentRenterPoints[daysRented]
+                : calculator.calculateFrequentRenterPoints(daysRented);
+    }
+
+}
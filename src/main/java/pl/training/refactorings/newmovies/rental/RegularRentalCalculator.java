@@ -2,9 +2,9 @@ package pl.training.refactorings.newmovies.rental;
 
 public class RegularRentalCalculator implements RentalCalculator {
     
-    private static final double BASE_PRICE = 2.0;
-    private static final double EXTRA_DAY_PRICE = 1.5;
-    private static final int FREE_DAYS = 2;
+    static final double BASE_PRICE = 2.0;
+    static final double EXTRA_DAY_PRICE = 1.5;
+    static final int FREE_DAYS = 2;
 
     @Override
     public double calculatePrice(int daysRented) {
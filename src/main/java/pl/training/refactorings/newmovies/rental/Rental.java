@@ -4,4 +4,20 @@ import pl.training.refactorings.newmovies.Movie;
 
 public record Rental(Movie movie, int daysRented) {
 
-}
\ No newline at end of file
+    public double calculatePrice() {
+        return movie.type().getCalculator().calculatePrice(daysRented);
+    }
+
+    public int calculateFrequentRenterPoints() {
+        return movie.type().getCalculator().calculateFrequentRenterPoints(daysRented);
+    }
+
+    public double calculatePrice(TariffSnapshot tariffs) {
+        return tariffs.calculatorFor(movie.type()).calculatePrice(daysRented);
+    }
+
+    public int calculateFrequentRenterPoints(TariffSnapshot tariffs) {
+        return tariffs.calculatorFor(movie.type()).calculateFrequentRenterPoints(daysRented);
+    }
+
+}
@@ -0,0 +1,24 @@
+package pl.training.refactorings.newmovies.rental;
+
+public record Tariff(double basePrice, double extraDayPrice, int freeDays, int bonusPointThreshold)
+        implements RentalCalculator {
+
+    public static final int NO_BONUS_POINTS = Integer.MAX_VALUE;
+
+    public Tariff {
+        if (basePrice < 0 || extraDayPrice < 0 || freeDays < 0) {
+            throw new IllegalArgumentException("Tariff prices and free days must not be negative");
+        }
+    }
+
+    @Override
+    public double calculatePrice(int daysRented) {
+        return basePrice + Math.max(0, daysRented - freeDays) * extraDayPrice;
+    }
+
+    @Override
+    public int calculateFrequentRenterPoints(int daysRented) {
+        return daysRented > bonusPointThreshold ? 2 : 1;
+    }
+
+}
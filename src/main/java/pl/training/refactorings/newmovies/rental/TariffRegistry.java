@@ -0,0 +1,140 @@
+package pl.training.refactorings.newmovies.rental;
+
+import pl.training.refactorings.newmovies.MovieType;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// pricing reads an immutable snapshot of the calculators effective today, the snapshot is replaced
+// as a whole on every reload and when a later tariff version becomes effective
+public class TariffRegistry {
+
+    private static final ScheduledThreadPoolExecutor REFRESHER = new ScheduledThreadPoolExecutor(1, task -> {
+        var thread = new Thread(task, "tariff-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        REFRESHER.setRemoveOnCancelPolicy(true);
+    }
+
+    private static final TariffRegistry SHARED = new TariffRegistry();
+
+    private final Clock clock;
+    private volatile TariffSchedule schedule;
+    private volatile TariffSnapshot snapshot;
+    private ScheduledFuture<?> scheduledRefresh;
+    private long snapshots;
+
+    public TariffRegistry() {
+        this(TariffSchedule.defaults(), Clock.systemDefaultZone());
+    }
+
+    public TariffRegistry(TariffSchedule schedule, Clock clock) {
+        this.clock = clock;
+        replace(schedule);
+    }
+
+    // the registry MovieType prices with
+    public static TariffRegistry shared() {
+        return SHARED;
+    }
+
+    public TariffSchedule current() {
+        return schedule;
+    }
+
+    // reads the clock once, so a version that became effective is used even before the scheduled refresh ran;
+    // take one snapshot per statement or batch and price everything in it with that snapshot
+    public TariffSnapshot snapshot() {
+        var current = snapshot;
+        if (clock.millis() >= current.validUntilMillis()) {
+            current = refresh();
+        }
+        return current;
+    }
+
+    // a single volatile read, without looking at the clock; a newly effective version is picked up
+    // by the scheduled refresh or by the next snapshot() call, whichever comes first
+    public RentalCalculator calculatorFor(MovieType type) {
+        return snapshot.calculatorFor(type);
+    }
+
+    public long version() {
+        return snapshot().version();
+    }
+
+    public RentalCalculator calculatorFor(MovieType type, LocalDate date) {
+        return schedule.calculatorFor(type, date);
+    }
+
+    public void reload(Path file) throws IOException {
+        replace(TariffSchedule.load(file, LocalDate.now(clock)));
+    }
+
+    public synchronized void publish(LocalDate effectiveFrom, Map<MovieType, Tariff> tariffs) {
+        replace(schedule.withVersion(effectiveFrom, tariffs));
+    }
+
+    // a schedule without a version effective today is rejected before anything is changed
+    public synchronized void replace(TariffSchedule schedule) {
+        var newSnapshot = snapshotOf(schedule);
+        this.schedule = schedule;
+        install(newSnapshot);
+    }
+
+    private synchronized TariffSnapshot refresh() {
+        if (clock.millis() >= snapshot.validUntilMillis()) {
+            install(snapshotOf(schedule));
+        }
+        return snapshot;
+    }
+
+    private void install(TariffSnapshot newSnapshot) {
+        snapshot = newSnapshot;
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+            scheduledRefresh = null;
+        }
+        if (newSnapshot.validUntilMillis() != Long.MAX_VALUE) {
+            scheduledRefresh = scheduleRefresh(new WeakReference<>(this), newSnapshot.validUntilMillis() - clock.millis());
+        }
+    }
+
+    // the task only holds a weak reference, so a registry nobody uses any more is not kept alive until its next change
+    private static ScheduledFuture<?> scheduleRefresh(WeakReference<TariffRegistry> registry, long delayMillis) {
+        return REFRESHER.schedule(() -> {
+            var current = registry.get();
+            if (current != null) {
+                current.refreshWhenDue();
+            }
+        }, Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void refreshWhenDue() {
+        long remainingMillis = snapshot.validUntilMillis() - clock.millis();
+        if (remainingMillis <= 0) {
+            install(snapshotOf(schedule));
+        } else {
+            scheduledRefresh = scheduleRefresh(new WeakReference<>(this), remainingMillis);
+        }
+    }
+
+    private TariffSnapshot snapshotOf(TariffSchedule schedule) {
+        var today = LocalDate.now(clock);
+        var tariffs = schedule.calculatorsFor(today);
+        long validUntilMillis = schedule.nextChangeAfter(today)
+                .map(date -> date.atStartOfDay(clock.getZone()).toInstant().toEpochMilli())
+                .orElse(Long.MAX_VALUE);
+        return new TariffSnapshot(tariffs, validUntilMillis, ++snapshots);
+    }
+
+}
@@ -0,0 +1,108 @@
+package pl.training.refactorings.newmovies.rental;
+
+import pl.training.refactorings.newmovies.MovieType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+// immutable; a new version is published by building a whole new schedule
+public final class TariffSchedule {
+
+    private static final String COMMENT = "#";
+    private static final String SEPARATOR = ",";
+    private static final int FIELDS = 6;
+
+    private final NavigableMap<LocalDate, RentalCalculator[]> versions;
+
+    private TariffSchedule(NavigableMap<LocalDate, RentalCalculator[]> versions) {
+        this.versions = Collections.unmodifiableNavigableMap(versions);
+    }
+
+    // the built-in calculators, so prices stay exactly as they were until a tariff file is loaded
+    public static TariffSchedule defaults() {
+        var calculators = new RentalCalculator[MovieType.values().length];
+        calculators[MovieType.REGULAR.ordinal()] = new RegularRentalCalculator();
+        calculators[MovieType.NEW_RELEASE.ordinal()] = new NewReleaseRentalCalculator();
+        calculators[MovieType.CHILDREN.ordinal()] = new ChildrenRentalCalculator();
+        var versions = new TreeMap<LocalDate, RentalCalculator[]>();
+        versions.put(LocalDate.MIN, calculators);
+        return new TariffSchedule(versions);
+    }
+
+    // a file that would leave nothing to price with today is rejected instead of being applied
+    public static TariffSchedule load(Path file, LocalDate today) throws IOException {
+        var schedule = load(file);
+        if (schedule.versions.floorKey(today) == null) {
+            throw new IllegalArgumentException("No tariff effective on " + today + " in " + file);
+        }
+        return schedule;
+    }
+
+    // effectiveFrom,type,basePrice,extraDayPrice,freeDays,bonusPointThreshold
+    public static TariffSchedule load(Path file) throws IOException {
+        var tariffsByDate = new TreeMap<LocalDate, Map<MovieType, Tariff>>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(file)) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith(COMMENT)) {
+                continue;
+            }
+            String[] fields = line.split(SEPARATOR);
+            if (fields.length != FIELDS) {
+                throw new IllegalArgumentException("Invalid tariff in line " + lineNumber + ": " + line);
+            }
+            var tariff = new Tariff(Double.parseDouble(fields[2].trim()), Double.parseDouble(fields[3].trim()),
+                    Integer.parseInt(fields[4].trim()), Integer.parseInt(fields[5].trim()));
+            tariffsByDate.computeIfAbsent(LocalDate.parse(fields[0].trim()), date -> new EnumMap<>(MovieType.class))
+                    .put(MovieType.valueOf(fields[1].trim()), tariff);
+        }
+        if (tariffsByDate.isEmpty()) {
+            throw new IllegalArgumentException("No tariffs in " + file);
+        }
+        var schedule = new TariffSchedule(new TreeMap<>());
+        for (Map.Entry<LocalDate, Map<MovieType, Tariff>> version : tariffsByDate.entrySet()) {
+            schedule = schedule.withVersion(version.getKey(), version.getValue());
+        }
+        return schedule;
+    }
+
+    public TariffSchedule withVersion(LocalDate effectiveFrom, Map<MovieType, Tariff> tariffs) {
+        var table = new RentalCalculator[MovieType.values().length];
+        for (MovieType type : MovieType.values()) {
+            var tariff = tariffs.get(type);
+            if (tariff == null) {
+                throw new IllegalArgumentException("Missing " + type + " tariff effective from " + effectiveFrom);
+            }
+            table[type.ordinal()] = tariff;
+        }
+        var newVersions = new TreeMap<>(versions);
+        newVersions.put(effectiveFrom, table);
+        return new TariffSchedule(newVersions);
+    }
+
+    public RentalCalculator calculatorFor(MovieType type, LocalDate date) {
+        return calculatorsFor(date)[type.ordinal()];
+    }
+
+    // the first day a later version takes over from the one effective on the given date
+    Optional<LocalDate> nextChangeAfter(LocalDate date) {
+        return Optional.ofNullable(versions.higherKey(date));
+    }
+
+    RentalCalculator[] calculatorsFor(LocalDate date) {
+        var version = versions.floorEntry(date);
+        if (version == null) {
+            throw new IllegalStateException("No tariff effective on " + date);
+        }
+        return version.getValue();
+    }
+
+}
@@ -0,0 +1,42 @@
+package pl.training.refactorings.newmovies.rental;
+
+import pl.training.refactorings.newmovies.MovieType;
+
+// the calculators of one tariff version as of one day; a statement, summary or billing partition prices
+// every rental with the same snapshot, so a reload in the middle never mixes two versions
+public final class TariffSnapshot {
+
+    private final RentalCalculator[] tariffs;
+    private final RentalCalculator[] calculators;
+    private final long validUntilMillis;
+    private final long version;
+
+    TariffSnapshot(RentalCalculator[] tariffs, long validUntilMillis, long version) {
+        this.tariffs = tariffs;
+        this.calculators = new RentalCalculator[tariffs.length];
+        for (int i = 0; i < tariffs.length; i++) {
+            calculators[i] = new PriceTableRentalCalculator(tariffs[i]);
+        }
+        this.validUntilMillis = validUntilMillis;
+        this.version = version;
+    }
+
+    public RentalCalculator calculatorFor(MovieType type) {
+        return calculators[type.ordinal()];
+    }
+
+    // changes whenever prices may have changed, so results computed under an older version can be thrown away
+    public long version() {
+        return version;
+    }
+
+    // the tariff as loaded, without the price table in front of it
+    RentalCalculator tariffFor(MovieType type) {
+        return tariffs[type.ordinal()];
+    }
+
+    long validUntilMillis() {
+        return validUntilMillis;
+    }
+
+}
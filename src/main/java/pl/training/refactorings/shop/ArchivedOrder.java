@@ -0,0 +1,28 @@
+package pl.training.refactorings.shop;
+
+
+public record ArchivedOrder(String orderId, String customerName, String productName, int quantity,
+                            double unitPrice, boolean premium, double chargedPrice) {
+    
+    
+    private static final String SEPARATOR = ",";
+    private static final int FIELDS = 7;
+    
+    
+    // orderId,customerName,productName,quantity,unitPrice,premium,chargedPrice
+    public static ArchivedOrder parse(String line) {
+        String[] fields = line.split(SEPARATOR, -1);
+        if (fields.length != FIELDS) {
+            throw new IllegalArgumentException("Invalid archived order: " + line);
+        }
+        return new ArchivedOrder(
+            fields[0],
+            fields[1],
+            fields[2],
+            Integer.parseInt(fields[3]),
+            Double.parseDouble(fields[4]),
+            Boolean.parseBoolean(fields[5]),
+            Double.parseDouble(fields[6])
+        );
+    }
+}
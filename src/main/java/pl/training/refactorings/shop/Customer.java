@@ -18,6 +18,10 @@ public class Customer {
     public List<String> orderHistory;
     
     
+    private DisplayName cachedDisplayName;
+    private FormattedAddress cachedFormattedAddress;
+    
+    
     public Customer(String name, String email, String phone, String address, 
                    String city, String state, String zip, int loyaltyPoints, 
                    boolean premium) {
@@ -85,18 +89,41 @@ public class Customer {
     
     
     public String getFormattedAddress() {
-        String result = address + "\n";
-        result += city + ", " + state + " " + zip;
-        return result;
+        var formattedAddress = cachedFormattedAddress;
+        if (formattedAddress == null || !formattedAddress.isFor(address, city, state, zip)) {
+            String value = address + "\n" + city + ", " + state + " " + zip;
+            formattedAddress = new FormattedAddress(address, city, state, zip, value);
+            cachedFormattedAddress = formattedAddress;
+        }
+        return formattedAddress.value();
     }
     
     
     public String getDisplayName() {
-        String[] nameParts = name.split(" ");
-        if (nameParts.length > 1) {
-            return nameParts[0] + " " + nameParts[nameParts.length - 1];
+        var displayName = cachedDisplayName;
+        if (displayName == null || displayName.name() != name) {
+            displayName = new DisplayName(name, firstAndLastName(name));
+            cachedDisplayName = displayName;
+        }
+        return displayName.value();
+    }
+    
+    
+    // same result as joining the first and last element of name.split(" "), without the array
+    private static String firstAndLastName(String name) {
+        int end = name.length();
+        while (end > 0 && name.charAt(end - 1) == ' ') {
+            end--;
+        }
+        int firstSpace = name.indexOf(' ');
+        if (firstSpace < 0 || firstSpace >= end) {
+            return name;
+        }
+        int lastSpace = name.lastIndexOf(' ', end - 1);
+        if (firstSpace == lastSpace && end == name.length()) {
+            return name;
         }
-        return name;
+        return name.substring(0, firstSpace) + " " + name.substring(lastSpace + 1, end);
     }
     
     
@@ -127,4 +154,18 @@ public class Customer {
         
         return discount;
     }
+    
+    
+    // the public fields can be reassigned at any time, so cached values remember the exact
+    // instances they were derived from and are rebuilt as soon as any of them changes
+    private record DisplayName(String name, String value) {
+    }
+    
+    
+    private record FormattedAddress(String address, String city, String state, String zip, String value) {
+        
+        boolean isFor(String address, String city, String state, String zip) {
+            return this.address == address && this.city == city && this.state == state && this.zip == zip;
+        }
+    }
 }
@@ -0,0 +1,147 @@
+package pl.training.refactorings.shop;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+
+public class OrderAdmissionController {
+    
+    
+    private static final int DEFAULT_MAX_TRACKED_CUSTOMERS = 100_000;
+    private static final long MIN_WAIT_NANOS = 10_000;
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000;
+    
+    
+    // a striped concurrent map, admissions of different customers never wait for each other
+    private final Map<String, TokenBucket> customerBuckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep;
+    private final int maxTrackedCustomers;
+    private final TokenBucket globalBucket;
+    private final long customerBurst;
+    private final long customerOrdersPerSecond;
+    private final LongSupplier nanoClock;
+    
+    
+    public OrderAdmissionController(long globalBurst, long globalOrdersPerSecond,
+                                    long customerBurst, long customerOrdersPerSecond) {
+        this(globalBurst, globalOrdersPerSecond, customerBurst, customerOrdersPerSecond, DEFAULT_MAX_TRACKED_CUSTOMERS);
+    }
+    
+    
+    public OrderAdmissionController(long globalBurst, long globalOrdersPerSecond,
+                                    long customerBurst, long customerOrdersPerSecond, int maxTrackedCustomers) {
+        this(globalBurst, globalOrdersPerSecond, customerBurst, customerOrdersPerSecond, maxTrackedCustomers, System::nanoTime);
+    }
+    
+    
+    OrderAdmissionController(long globalBurst, long globalOrdersPerSecond,
+                             long customerBurst, long customerOrdersPerSecond, LongSupplier nanoClock) {
+        this(globalBurst, globalOrdersPerSecond, customerBurst, customerOrdersPerSecond, DEFAULT_MAX_TRACKED_CUSTOMERS, nanoClock);
+    }
+    
+    
+    OrderAdmissionController(long globalBurst, long globalOrdersPerSecond, long customerBurst,
+                             long customerOrdersPerSecond, int maxTrackedCustomers, LongSupplier nanoClock) {
+        if (maxTrackedCustomers <= 0) {
+            throw new IllegalArgumentException("Number of tracked customers must be positive");
+        }
+        this.maxTrackedCustomers = maxTrackedCustomers;
+        this.nextSweep = new AtomicLong(nanoClock.getAsLong() + SWEEP_INTERVAL_NANOS);
+        this.globalBucket = new TokenBucket(globalBurst, globalOrdersPerSecond, nanoClock);
+        this.customerBurst = customerBurst;
+        this.customerOrdersPerSecond = customerOrdersPerSecond;
+        this.nanoClock = nanoClock;
+    }
+    
+    
+    public boolean tryAdmit(String customerName) {
+        if (customerName == null) {
+            throw new IllegalArgumentException("Customer name is required for admission");
+        }
+        var customerBucket = customerBucket(customerName);
+        while (!customerBucket.tryConsume()) {
+            if (!customerBucket.isRetired()) {
+                return false;
+            }
+            customerBucket = customerBucket(customerName);
+        }
+        if (!globalBucket.tryConsume()) {
+            customerBucket.refund();
+            return false;
+        }
+        return true;
+    }
+    
+    
+    public boolean tryAdmit(String customerName, Duration maxWait) {
+        long deadline = nanoClock.getAsLong() + maxWait.toNanos();
+        while (!tryAdmit(customerName)) {
+            long wait = Math.max(customerBucket(customerName).nanosUntilNextToken(), globalBucket.nanosUntilNextToken());
+            if (nanoClock.getAsLong() + wait > deadline) {
+                return false;
+            }
+            LockSupport.parkNanos(Math.max(wait, MIN_WAIT_NANOS));
+        }
+        return true;
+    }
+    
+    
+    int trackedCustomers() {
+        sweep(null);
+        return customerBuckets.size();
+    }
+    
+    
+    private TokenBucket customerBucket(String customerName) {
+        var bucket = customerBuckets.get(customerName);
+        if (bucket != null && !bucket.isRetired()) {
+            sweepIfDue();
+            return bucket;
+        }
+        bucket = customerBuckets.compute(customerName, (name, existing) -> existing == null || existing.isRetired()
+            ? new TokenBucket(customerBurst, customerOrdersPerSecond, nanoClock)
+            : existing);
+        if (customerBuckets.size() > maxTrackedCustomers) {
+            sweep(bucket);
+        } else {
+            sweepIfDue();
+        }
+        return bucket;
+    }
+    
+    
+    // one caller at a time does the periodic sweep, everybody else goes on without waiting
+    private void sweepIfDue() {
+        long now = nanoClock.getAsLong();
+        long due = nextSweep.get();
+        if (now - due >= 0 && nextSweep.compareAndSet(due, now + SWEEP_INTERVAL_NANOS)) {
+            sweep(null);
+        }
+    }
+    
+    
+    // customers idle long enough to refill their whole burst are dropped first; if there are still too many,
+    // other customers than the one being admitted are dropped and simply start over with a full burst.
+    // Buckets are retired before they are removed, so a caller still holding one never consumes from
+    // a bucket that has been replaced
+    private void sweep(TokenBucket admitted) {
+        customerBuckets.forEach((name, bucket) -> {
+            if (bucket.retireIfIdle()) {
+                customerBuckets.remove(name, bucket);
+            }
+        });
+        var iterator = customerBuckets.entrySet().iterator();
+        while (customerBuckets.size() > maxTrackedCustomers && iterator.hasNext()) {
+            var entry = iterator.next();
+            if (entry.getValue() == admitted) {
+                continue;
+            }
+            entry.getValue().retire();
+            customerBuckets.remove(entry.getKey(), entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package pl.training.refactorings.shop;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+public class OrderDeduplicationCache {
+
+
+    // insertion order equals expiry order, so expired entries are always at the head
+    private final Map<String, ProcessedOrder> processedOrders = new LinkedHashMap<>();
+    // a lock instead of synchronized keeps waiting virtual threads from pinning their carrier
+    private final Lock lock = new ReentrantLock();
+    private final Duration window;
+    private final int capacity;
+    private final Clock clock;
+
+
+    public OrderDeduplicationCache(Duration window, int capacity, Clock clock) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Deduplication window must be positive");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Deduplication capacity must be positive");
+        }
+        this.window = window;
+        this.capacity = capacity;
+        this.clock = clock;
+    }
+
+
+    public static OrderDeduplicationCache forThroughput(int ordersPerSecond, Duration window) {
+        long capacity = Math.max(1, ordersPerSecond * window.toSeconds());
+        return new OrderDeduplicationCache(window, (int) Math.min(Integer.MAX_VALUE, capacity), Clock.systemUTC());
+    }
+
+
+    // reserves the key for the caller, or returns the outcome of whoever reserved it first, possibly still in flight
+    public CompletableFuture<OrderOutcome> putIfAbsent(String idempotencyKey, CompletableFuture<OrderOutcome> outcome) {
+        lock.lock();
+        try {
+            evictExpired();
+            var processedOrder = processedOrders.get(idempotencyKey);
+            if (processedOrder != null) {
+                return processedOrder.outcome();
+            }
+            processedOrders.put(idempotencyKey, new ProcessedOrder(outcome, clock.instant()));
+            evictOverCapacity();
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    // releases a reservation whose order failed unexpectedly, so a retry can place it again
+    public void remove(String idempotencyKey, CompletableFuture<OrderOutcome> outcome) {
+        lock.lock();
+        try {
+            var processedOrder = processedOrders.get(idempotencyKey);
+            if (processedOrder != null && processedOrder.outcome() == outcome) {
+                processedOrders.remove(idempotencyKey);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    public int size() {
+        lock.lock();
+        try {
+            evictExpired();
+            return processedOrders.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+
+    // an order still in flight is kept past the window, otherwise a retry could place it a second time
+    private void evictExpired() {
+        var oldestValid = clock.instant().minus(window);
+        var iterator = processedOrders.values().iterator();
+        while (iterator.hasNext()) {
+            var processedOrder = iterator.next();
+            if (!processedOrder.processedAt().isBefore(oldestValid) || !processedOrder.outcome().isDone()) {
+                return;
+            }
+            iterator.remove();
+        }
+    }
+
+
+    // oldest completed orders make room first, orders in flight are never evicted, so under overload
+    // the cache grows past its capacity until they complete rather than let a retry charge twice
+    private void evictOverCapacity() {
+        var iterator = processedOrders.values().iterator();
+        while (processedOrders.size() > capacity && iterator.hasNext()) {
+            if (iterator.next().outcome().isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+
+    private record ProcessedOrder(CompletableFuture<OrderOutcome> outcome, Instant processedAt) {
+    }
+}
@@ -0,0 +1,43 @@
+package pl.training.refactorings.shop;
+
+import java.time.Duration;
+
+
+public class OrderIntake {
+    
+    
+    private final OrderProcessor processor;
+    private final OrderAdmissionController admissionController;
+    private final Duration maxQueueTime;
+    
+    
+    public OrderIntake(OrderProcessor processor, OrderAdmissionController admissionController, Duration maxQueueTime) {
+        this.processor = processor;
+        this.admissionController = admissionController;
+        this.maxQueueTime = maxQueueTime;
+    }
+    
+    
+    public OrderOutcome submitOrder(String idempotencyKey, String customerName, String productName, int quantity,
+                                    double price, String paymentType, String email,
+                                    boolean isPremium, String address) {
+        if (customerName == null) {
+            System.out.println("Error: Customer name is null");
+            return OrderOutcome.invalid();
+        }
+        if (!admit(customerName)) {
+            System.out.println("Order rejected, quota exceeded for " + customerName);
+            return OrderOutcome.throttled();
+        }
+        // admitted orders run concurrently, OrderProcessor only serializes updates of its own state
+        return processor.submitOrder(idempotencyKey, customerName, productName, quantity,
+            price, paymentType, email, isPremium, address);
+    }
+    
+    
+    private boolean admit(String customerName) {
+        return maxQueueTime.isZero()
+            ? admissionController.tryAdmit(customerName)
+            : admissionController.tryAdmit(customerName, maxQueueTime);
+    }
+}
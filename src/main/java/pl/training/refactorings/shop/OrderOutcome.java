@@ -0,0 +1,32 @@
+package pl.training.refactorings.shop;
+
+
+public record OrderOutcome(Status status, double finalPrice) {
+    
+    
+    public enum Status {
+        PLACED,
+        INVALID,
+        THROTTLED
+    }
+    
+    
+    public static OrderOutcome placed(double finalPrice) {
+        return new OrderOutcome(Status.PLACED, finalPrice);
+    }
+    
+    
+    public static OrderOutcome invalid() {
+        return new OrderOutcome(Status.INVALID, 0);
+    }
+    
+    
+    public static OrderOutcome throttled() {
+        return new OrderOutcome(Status.THROTTLED, 0);
+    }
+    
+    
+    public boolean isPlaced() {
+        return status == Status.PLACED;
+    }
+}
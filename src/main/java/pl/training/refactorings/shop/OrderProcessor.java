@@ -1,6 +1,12 @@
 package pl.training.refactorings.shop;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.text.*;
 
 
@@ -14,11 +20,69 @@ public class OrderProcessor {
     
     
     private static final int DISCOUNT_THRESHOLD = 100;
+    private static final int EXPECTED_ORDERS_PER_SECOND = 50_000;
+    private static final Duration DEDUPLICATION_WINDOW = Duration.ofSeconds(30);
+    private static final int MAX_CACHED_DISPLAY_NAMES = 100_000;
+    
+    
+    // shared by all processors; once full, further names are built on every call instead of evicting,
+    // so lookups never lock and a flood of one-off names can not grow the cache without bound
+    private static final ConcurrentMap<DisplayNameKey, String> DISPLAY_NAMES = new ConcurrentHashMap<>();
+    
+    
+    private final OrderDeduplicationCache processedOrders;
+    // guards orders, total, orderCount and lastCustomer; payment, email and inventory calls run outside of it,
+    // a lock instead of synchronized keeps waiting virtual threads from pinning their carrier
+    private final Lock stateLock = new ReentrantLock();
+    
+    
+    public OrderProcessor() {
+        this(OrderDeduplicationCache.forThroughput(EXPECTED_ORDERS_PER_SECOND, DEDUPLICATION_WINDOW));
+    }
+    
+    
+    public OrderProcessor(OrderDeduplicationCache processedOrders) {
+        this.processedOrders = processedOrders;
+    }
     
     
     public void processOrder(String customerName, String productName, int quantity, 
                             double price, String paymentType, String email, 
                             boolean isPremium, String address) {
+        placeOrder(customerName, productName, quantity, price, paymentType, email, isPremium, address);
+    }
+    
+    
+    public OrderOutcome submitOrder(String idempotencyKey, String customerName, String productName, int quantity,
+                                    double price, String paymentType, String email,
+                                    boolean isPremium, String address) {
+        if (idempotencyKey == null) {
+            return placeOrder(customerName, productName, quantity, price, paymentType, email, isPremium, address);
+        }
+        
+        // the key is reserved before the order is placed, so a concurrent retry waits for this outcome instead of charging again
+        var outcome = new CompletableFuture<OrderOutcome>();
+        var previousOutcome = processedOrders.putIfAbsent(idempotencyKey, outcome);
+        if (previousOutcome != null) {
+            System.out.println("Duplicate order ignored: " + idempotencyKey);
+            return previousOutcome.join();
+        }
+        
+        try {
+            var result = placeOrder(customerName, productName, quantity, price, paymentType, email, isPremium, address);
+            outcome.complete(result);
+            return result;
+        } catch (RuntimeException exception) {
+            processedOrders.remove(idempotencyKey, outcome);
+            outcome.completeExceptionally(exception);
+            throw exception;
+        }
+    }
+    
+    
+    private OrderOutcome placeOrder(String customerName, String productName, int quantity, 
+                                      double price, String paymentType, String email, 
+                                      boolean isPremium, String address) {
         
         
         if (customerName != null) {
@@ -27,30 +91,14 @@ public class OrderProcessor {
                     if (price > 0) {
                         
                         
-                        double subtotal = quantity * price;
-                        double discount = 0;
-                        
+                        var orderPrice = priceOrder(quantity, price, isPremium);
+                        double subtotal = orderPrice.subtotal();
+                        double discount = orderPrice.discount();
+                        double tax = orderPrice.tax();
+                        double finalPrice = orderPrice.finalPrice();
                         
-                        if (isPremium && subtotal > 100) {
-                            discount = subtotal * 0.15;
-                        } else if (isPremium) {
-                            discount = subtotal * 0.10;
-                        } else if (subtotal > 100) {
-                            discount = subtotal * 0.05;
-                        }
-                        
-                        double tax = (subtotal - discount) * 0.08;
-                        double finalPrice = subtotal - discount + tax;
-                        
-                        
-                        String orderRecord = customerName + "," + productName + "," + 
-                                           quantity + "," + finalPrice + "," + 
-                                           new Date().toString();
-                        orders.add(orderRecord);
                         
-                        total += finalPrice;
-                        orderCount++;
-                        lastCustomer = customerName;
+                        recordOrder(customerName, productName, quantity, finalPrice);
                         
                         
                         if (paymentType.equals("credit")) {
@@ -88,6 +136,7 @@ public class OrderProcessor {
                         
                         System.out.println("Order processed successfully for " + customerName);
                         
+                        return OrderOutcome.placed(finalPrice);
                     } else {
                         System.out.println("Error: Invalid price");
                     }
@@ -100,31 +149,51 @@ public class OrderProcessor {
         } else {
             System.out.println("Error: Customer name is null");
         }
+        return OrderOutcome.invalid();
     }
     
     
     public void processQuickOrder(String customer, String product, int qty) {
         double price = 29.99; 
-        double subtotal = qty * price;
-        double discount = 0;
-        
-        if (subtotal > 100) {
-            discount = subtotal * 0.05;
-        }
+        double finalPrice = priceOrder(qty, price, false).finalPrice();
         
-        double tax = (subtotal - discount) * 0.08;
-        double finalPrice = subtotal - discount + tax;
+        recordOrder(customer, product, qty, finalPrice);
         
+        System.out.println("Quick order processed for " + customer);
+    }
+    
+    
+    private void recordOrder(String customer, String product, int quantity, double finalPrice) {
         String orderRecord = customer + "," + product + "," + 
-                           qty + "," + finalPrice + "," + 
+                           quantity + "," + finalPrice + "," + 
                            new Date().toString();
-        orders.add(orderRecord);
+        stateLock.lock();
+        try {
+            orders.add(orderRecord);
+            total += finalPrice;
+            orderCount++;
+            lastCustomer = customer;
+        } finally {
+            stateLock.unlock();
+        }
+    }
+    
+    
+    public static OrderPrice priceOrder(int quantity, double price, boolean isPremium) {
+        double subtotal = quantity * price;
+        double discount = 0;
         
-        total += finalPrice;
-        orderCount++;
-        lastCustomer = customer;
         
-        System.out.println("Quick order processed for " + customer);
+        if (isPremium && subtotal > 100) {
+            discount = subtotal * 0.15;
+        } else if (isPremium) {
+            discount = subtotal * 0.10;
+        } else if (subtotal > 100) {
+            discount = subtotal * 0.05;
+        }
+        
+        double tax = (subtotal - discount) * 0.08;
+        return new OrderPrice(subtotal, discount, tax, subtotal - discount + tax);
     }
     
     
@@ -136,6 +205,20 @@ public class OrderProcessor {
     
     
     public void generateReport(boolean detailed) {
+        List<String> orders;
+        double total;
+        int orderCount;
+        String lastCustomer;
+        stateLock.lock();
+        try {
+            orders = List.copyOf(this.orders);
+            total = this.total;
+            orderCount = this.orderCount;
+            lastCustomer = this.lastCustomer;
+        } finally {
+            stateLock.unlock();
+        }
+        
         if (detailed) {
             System.out.println("=== DETAILED ORDER REPORT ===");
             System.out.println("Total Orders: " + orderCount);
@@ -158,16 +241,38 @@ public class OrderProcessor {
     
     
     public String getCustomerDisplayName(String firstName, String lastName, String title) {
-        String result = "";
+        var key = new DisplayNameKey(firstName, lastName, title);
+        var displayName = DISPLAY_NAMES.get(key);
+        if (displayName == null) {
+            displayName = buildDisplayName(firstName, lastName, title);
+            if (DISPLAY_NAMES.size() < MAX_CACHED_DISPLAY_NAMES) {
+                var existing = DISPLAY_NAMES.putIfAbsent(key, displayName);
+                displayName = existing == null ? displayName : existing;
+            }
+        }
+        return displayName;
+    }
+    
+    
+    private static String buildDisplayName(String firstName, String lastName, String title) {
+        var result = new StringBuilder();
         if (title != null && !title.isEmpty()) {
-            result += title + " ";
+            result.append(title).append(' ');
         }
         if (firstName != null) {
-            result += firstName + " ";
+            result.append(firstName).append(' ');
         }
         if (lastName != null) {
-            result += lastName;
+            result.append(lastName);
         }
-        return result.trim();
+        return result.toString().trim();
+    }
+    
+    
+    private record DisplayNameKey(String firstName, String lastName, String title) {
+    }
+    
+    
+    public record OrderPrice(double subtotal, double discount, double tax, double finalPrice) {
     }
 }
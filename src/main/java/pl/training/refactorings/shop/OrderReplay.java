@@ -0,0 +1,140 @@
+package pl.training.refactorings.shop;
+
+import pl.training.refactorings.concurrent.PartitionedWorkers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+
+public class OrderReplay {
+    
+    
+    private static final double PRICE_TOLERANCE = 0.005;
+    private static final int BATCH_SIZE = 1024;
+    private static final int QUEUED_BATCHES = 4;
+    private static final String REPORT_HEADER = "orderId,customer,product,charged,current,difference\n";
+    
+    
+    private final ForkJoinPool pool;
+    
+    
+    public OrderReplay() {
+        this(new ForkJoinPool(Runtime.getRuntime().availableProcessors()));
+    }
+    
+    
+    // the workers block on their queues for the whole replay, so the pool should not be shared with other work
+    public OrderReplay(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+    
+    
+    public List<PriceDiscrepancy> replay(Path archive) {
+        var discrepancies = Collections.synchronizedList(new ArrayList<PriceDiscrepancy>());
+        replay(archive, discrepancies::add);
+        return new ArrayList<>(discrepancies);
+    }
+    
+    
+    // discrepancies are written as soon as they are found, neither the archive nor the report is held in memory
+    public void replay(Path archive, Writer report) {
+        try {
+            report.write(REPORT_HEADER);
+            replay(archive, discrepancy -> writeLine(discrepancy, report));
+            report.flush();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+    
+    
+    // the reading thread only finds the customer field of each line, parsing and pricing run on the workers
+    public void replay(Path archive, Consumer<PriceDiscrepancy> discrepancies) {
+        try (Stream<String> lines = Files.lines(archive);
+             var workers = startWorkers(ArchivedOrder::parse, discrepancies)) {
+            lines.forEachOrdered(line -> {
+                if (!line.isBlank()) {
+                    workers.submit(partitionOf(customerHash(line), workers.partitions()), line);
+                }
+            });
+            workers.finish();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+    
+    
+    public List<PriceDiscrepancy> replay(Stream<ArchivedOrder> archive) {
+        var discrepancies = Collections.synchronizedList(new ArrayList<PriceDiscrepancy>());
+        replay(archive, discrepancies::add);
+        return new ArrayList<>(discrepancies);
+    }
+    
+    
+    // orders of one customer always go to the same worker, in archive order, so each customer's discrepancies
+    // are reported in the order they were placed
+    public void replay(Stream<ArchivedOrder> archive, Consumer<PriceDiscrepancy> discrepancies) {
+        try (var workers = startWorkers(Function.<ArchivedOrder>identity(), discrepancies)) {
+            archive.forEachOrdered(order -> workers.submit(partitionOf(Objects.hashCode(order.customerName()), workers.partitions()), order));
+            workers.finish();
+        }
+    }
+    
+    
+    private <T> PartitionedWorkers<T> startWorkers(Function<T, ArchivedOrder> parser, Consumer<PriceDiscrepancy> discrepancies) {
+        return new PartitionedWorkers<>("Order replay", pool, pool.getParallelism(), BATCH_SIZE, QUEUED_BATCHES,
+            partition -> item -> reprice(parser.apply(item), discrepancies));
+    }
+    
+    
+    public static void writeReport(List<PriceDiscrepancy> discrepancies, Writer report) throws IOException {
+        report.write(REPORT_HEADER);
+        for (PriceDiscrepancy discrepancy : discrepancies) {
+            report.write(discrepancy + "\n");
+        }
+        report.flush();
+    }
+    
+    
+    private static void writeLine(PriceDiscrepancy discrepancy, Writer report) {
+        var line = discrepancy + "\n";
+        synchronized (report) {
+            try {
+                report.write(line);
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+    }
+    
+    
+    private static int partitionOf(int customerHash, int partitionCount) {
+        return Math.floorMod(customerHash, partitionCount);
+    }
+    
+    
+    // same value as hashCode of the customer name field, computed without splitting the line
+    private static int customerHash(String line) {
+        int hash = 0;
+        for (int index = line.indexOf(',') + 1; index > 0 && index < line.length() && line.charAt(index) != ','; index++) {
+            hash = 31 * hash + line.charAt(index);
+        }
+        return hash;
+    }
+    
+    
+    private static void reprice(ArchivedOrder order, Consumer<PriceDiscrepancy> discrepancies) {
+        double currentPrice = OrderProcessor.priceOrder(order.quantity(), order.unitPrice(), order.premium()).finalPrice();
+        if (Math.abs(currentPrice - order.chargedPrice()) > PRICE_TOLERANCE) {
+            discrepancies.accept(new PriceDiscrepancy(order, currentPrice));
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package pl.training.refactorings.shop;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+
+public class OrderServer {
+    
+    
+    private static final int BACKLOG = 4096;
+    private static final int OK = 200;
+    private static final int CREATED = 201;
+    private static final int BAD_REQUEST = 400;
+    private static final int NOT_FOUND = 404;
+    private static final int METHOD_NOT_ALLOWED = 405;
+    private static final int TOO_MANY_REQUESTS = 429;
+    
+    
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final OrderIntake intake;
+    private final List<Product> catalog;
+    
+    
+    public OrderServer(InetSocketAddress address, OrderIntake intake, List<Product> catalog) throws IOException {
+        this.intake = intake;
+        this.catalog = catalog;
+        // every exchange gets its own virtual thread, so blocking payment, email and inventory calls
+        // park the virtual thread instead of holding on to a platform thread
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(address, BACKLOG);
+        server.createContext("/products", this::handleProducts);
+        server.createContext("/orders", this::handleOrders);
+        server.setExecutor(executor);
+    }
+    
+    
+    public void start() {
+        server.start();
+    }
+    
+    
+    public void stop() {
+        server.stop(0);
+        executor.close();
+    }
+    
+    
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+    
+    
+    // GET /products lists the catalog, GET /products?id=P001 returns a single product
+    private void handleProducts(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            respond(exchange, METHOD_NOT_ALLOWED, "Method not allowed");
+            return;
+        }
+        var productId = parse(exchange.getRequestURI().getRawQuery()).get("id");
+        if (productId == null) {
+            var body = new StringBuilder();
+            for (Product product : catalog) {
+                body.append(product.getProductInfo()).append("---\n");
+            }
+            respond(exchange, OK, body.toString());
+            return;
+        }
+        var product = findProduct(productId);
+        if (product.isPresent()) {
+            respond(exchange, OK, product.get().getProductInfo());
+        } else {
+            respond(exchange, NOT_FOUND, "Unknown product: " + productId);
+        }
+    }
+    
+    
+    // POST /orders with form encoded idempotencyKey, customer, product (id), quantity, payment, email, premium, address
+    private void handleOrders(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            respond(exchange, METHOD_NOT_ALLOWED, "Method not allowed");
+            return;
+        }
+        Map<String, String> form;
+        try (var body = exchange.getRequestBody()) {
+            form = parse(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        
+        var product = findProduct(form.get("product"));
+        if (product.isEmpty()) {
+            respond(exchange, NOT_FOUND, "Unknown product: " + form.get("product"));
+            return;
+        }
+        int quantity;
+        try {
+            quantity = Integer.parseInt(form.getOrDefault("quantity", ""));
+        } catch (NumberFormatException exception) {
+            respond(exchange, BAD_REQUEST, "Invalid quantity");
+            return;
+        }
+        
+        var result = intake.submitOrder(
+            form.get("idempotencyKey"),
+            form.get("customer"),
+            product.get().name,
+            quantity,
+            product.get().price,
+            form.getOrDefault("payment", "credit"),
+            form.get("email"),
+            Boolean.parseBoolean(form.get("premium")),
+            form.get("address")
+        );
+        switch (result.status()) {
+            case PLACED -> respond(exchange, CREATED, OrderProcessor.formatCurrency(result.finalPrice()));
+            case INVALID -> respond(exchange, BAD_REQUEST, "Order rejected");
+            case THROTTLED -> respond(exchange, TOO_MANY_REQUESTS, "Quota exceeded");
+        }
+    }
+    
+    
+    private Optional<Product> findProduct(String productId) {
+        return catalog.stream()
+            .filter(product -> product.id.equals(productId))
+            .findFirst();
+    }
+    
+    
+    private static Map<String, String> parse(String encoded) {
+        var parameters = new HashMap<String, String>();
+        if (encoded == null || encoded.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : encoded.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                parameters.put(decode(pair.substring(0, separator)), decode(pair.substring(separator + 1)));
+            }
+        }
+        return parameters;
+    }
+    
+    
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+    
+    
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package pl.training.refactorings.shop;
+
+
+public record PriceDiscrepancy(ArchivedOrder order, double currentPrice) {
+    
+    
+    public double difference() {
+        return currentPrice - order.chargedPrice();
+    }
+    
+    
+    @Override
+    public String toString() {
+        return order.orderId() + "," + order.customerName() + "," + order.productName() + "," +
+               order.chargedPrice() + "," + currentPrice + "," + difference();
+    }
+}
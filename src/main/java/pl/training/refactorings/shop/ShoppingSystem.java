@@ -1,5 +1,8 @@
 package pl.training.refactorings.shop;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
 import java.util.*;
 
 
@@ -10,6 +13,11 @@ public class ShoppingSystem {
     public static List<Customer> customers = new ArrayList<>();
     public static List<Product> products = new ArrayList<>();
     
+    
+    private static final int GLOBAL_ORDERS_PER_SECOND = 50_000;
+    private static final int CUSTOMER_ORDERS_PER_SECOND = 50;
+    private static final Duration MAX_ORDER_QUEUE_TIME = Duration.ofMillis(100);
+    
     public static void main(String[] args) {
         
         
@@ -128,6 +136,23 @@ public class ShoppingSystem {
     }
     
     
+    public static OrderServer startServer(int port) throws IOException {
+        return startServer(port, processor, products);
+    }
+    
+    
+    public static OrderServer startServer(int port, OrderProcessor processor, List<Product> catalog) throws IOException {
+        var admissionController = new OrderAdmissionController(
+            GLOBAL_ORDERS_PER_SECOND, GLOBAL_ORDERS_PER_SECOND,
+            CUSTOMER_ORDERS_PER_SECOND, CUSTOMER_ORDERS_PER_SECOND
+        );
+        var intake = new OrderIntake(processor, admissionController, MAX_ORDER_QUEUE_TIME);
+        var server = new OrderServer(new InetSocketAddress(port), intake, catalog);
+        server.start();
+        return server;
+    }
+    
+    
     public static void demonstrateProblems() {
         System.out.println("\n=== Demonstrating Coupling Issues ===\n");
         
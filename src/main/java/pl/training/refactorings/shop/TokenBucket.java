@@ -0,0 +1,82 @@
+package pl.training.refactorings.shop;
+
+import java.util.function.LongSupplier;
+
+
+class TokenBucket {
+    
+    
+    private final long capacity;
+    private final long nanosPerToken;
+    private final LongSupplier nanoClock;
+    private long availableTokens;
+    private long lastRefill;
+    private long lastConsumed;
+    private boolean retired;
+    
+    
+    TokenBucket(long capacity, long tokensPerSecond, LongSupplier nanoClock) {
+        if (capacity <= 0 || tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("Bucket capacity and refill rate must be positive");
+        }
+        this.capacity = capacity;
+        this.nanosPerToken = Math.max(1, 1_000_000_000L / tokensPerSecond);
+        this.nanoClock = nanoClock;
+        this.availableTokens = capacity;
+        this.lastRefill = nanoClock.getAsLong();
+        this.lastConsumed = lastRefill;
+    }
+    
+    
+    synchronized boolean tryConsume() {
+        refill();
+        if (availableTokens == 0 || retired) {
+            return false;
+        }
+        availableTokens--;
+        lastConsumed = nanoClock.getAsLong();
+        return true;
+    }
+    
+    
+    synchronized void refund() {
+        availableTokens = Math.min(capacity, availableTokens + 1);
+    }
+    
+    
+    synchronized long nanosUntilNextToken() {
+        refill();
+        return availableTokens > 0 ? 0 : lastRefill + nanosPerToken - nanoClock.getAsLong();
+    }
+    
+    
+    // a full bucket behaves exactly like a new one, so it can be dropped and recreated when needed,
+    // unless it was created or used so recently that its owner is probably about to consume from it;
+    // a retired bucket hands out no more tokens, so a caller still holding it has to look up its replacement
+    synchronized boolean retireIfIdle() {
+        refill();
+        retired = retired || availableTokens == capacity && nanoClock.getAsLong() - lastConsumed >= capacity * nanosPerToken;
+        return retired;
+    }
+    
+    
+    synchronized void retire() {
+        retired = true;
+    }
+    
+    
+    synchronized boolean isRetired() {
+        return retired;
+    }
+    
+    
+    // tokens are added lazily, only when somebody asks for one
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        long newTokens = (now - lastRefill) / nanosPerToken;
+        if (newTokens > 0) {
+            availableTokens = Math.min(capacity, availableTokens + newTokens);
+            lastRefill = availableTokens == capacity ? now : lastRefill + newTokens * nanosPerToken;
+        }
+    }
+}
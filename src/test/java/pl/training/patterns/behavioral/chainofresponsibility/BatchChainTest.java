@@ -0,0 +1,103 @@
+package pl.training.patterns.behavioral.chainofresponsibility;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchChainTest {
+
+    @Test
+    @DisplayName("Should stop short requests in validator before later stages")
+    void shouldStopShortRequestsInValidatorBeforeLaterStages() {
+        var recorder = new Recorder(null);
+        var chain = new BatchChain(new Validator(new Logger(recorder)));
+
+        var handled = chain.handleRequests(List.of("Test", "ab", "Batch", "x"));
+
+        assertEquals(List.of("Test", "Batch"), handled);
+        assertEquals(List.of("Batch", "Test"), recorder.sorted());
+    }
+
+    @Test
+    @DisplayName("Should handle batch like requests handled one by one")
+    void shouldHandleBatchLikeRequestsHandledOneByOne() {
+        var requests = IntStream.range(0, 2_000)
+                .mapToObj(index -> "r".repeat(index % 5) + index)
+                .toList();
+        var sequentialRecorder = new Recorder(null);
+        var sequential = new Validator(sequentialRecorder);
+        requests.forEach(sequential::handleRequest);
+        var batchRecorder = new Recorder(null);
+
+        var handled = new BatchChain(new Validator(batchRecorder), new ForkJoinPool(4)).handleRequests(requests);
+
+        assertEquals(sequentialRecorder.requests, handled);
+        assertEquals(sequentialRecorder.sorted(), batchRecorder.sorted());
+    }
+
+    @Test
+    @DisplayName("Should handle empty batch")
+    void shouldHandleEmptyBatch() {
+        var recorder = new Recorder(null);
+
+        var handled = new BatchChain(new Validator(recorder)).handleRequests(List.of());
+
+        assertTrue(handled.isEmpty());
+        assertTrue(recorder.requests.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should pass request on from handler that only overrides handleRequest")
+    void shouldPassRequestOnFromHandlerThatOnlyOverridesHandleRequest() {
+        var recorder = new Recorder(null);
+        var chain = new Validator(new ForwardingHandler(recorder));
+
+        chain.handleRequest("Test");
+        chain.handleRequest("ab");
+
+        assertEquals(List.of("Test"), recorder.requests);
+    }
+
+    private static class Recorder extends Handler {
+
+        private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+
+        Recorder(Handler nextHandler) {
+            this.nextHandler = nextHandler;
+        }
+
+        @Override
+        protected boolean handle(String request) {
+            requests.add(request);
+            return true;
+        }
+
+        List<String> sorted() {
+            synchronized (requests) {
+                return requests.stream().sorted().toList();
+            }
+        }
+
+    }
+
+    private static class ForwardingHandler extends Handler {
+
+        ForwardingHandler(Handler nextHandler) {
+            this.nextHandler = nextHandler;
+        }
+
+        @Override
+        public void handleRequest(String request) {
+            nextHandler.handleRequest(request);
+        }
+
+    }
+
+}
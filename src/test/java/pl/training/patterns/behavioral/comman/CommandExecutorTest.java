@@ -0,0 +1,202 @@
+package pl.training.patterns.behavioral.comman;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandExecutorTest {
+
+    @Test
+    @DisplayName("Should execute every submitted command")
+    void shouldExecuteEverySubmittedCommand() {
+        try (var executor = CommandExecutor.platformThreads(4)) {
+            var executed = new AtomicInteger();
+            var commands = new ArrayList<Command>();
+            for (int i = 0; i < 10_000; i++) {
+                commands.add(executed::incrementAndGet);
+            }
+
+            executor.submitAll(commands, Priority.LOW).join();
+
+            assertEquals(10_000, executed.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Should execute higher priority commands first")
+    void shouldExecuteHigherPriorityCommandsFirst() throws InterruptedException {
+        try (var executor = CommandExecutor.platformThreads(1)) {
+            var gate = new CountDownLatch(1);
+            var order = new CopyOnWriteArrayList<String>();
+            var blocking = executor.submit(() -> await(gate));
+            Thread.sleep(50);
+
+            var low = executor.submit(() -> order.add("low"), Priority.LOW);
+            var high = executor.submit(() -> order.add("high"), Priority.HIGH);
+            gate.countDown();
+            CompletableFuture.allOf(blocking, low, high).join();
+
+            assertEquals(List.of("high", "low"), order);
+        }
+    }
+
+    @Test
+    @DisplayName("Should skip queued command that timed out")
+    void shouldSkipQueuedCommandThatTimedOut() throws InterruptedException {
+        try (var executor = CommandExecutor.platformThreads(1)) {
+            var gate = new CountDownLatch(1);
+            var executed = new AtomicInteger();
+            executor.submit(() -> await(gate));
+
+            var timedOut = executor.submit(executed::incrementAndGet, Priority.NORMAL, Duration.ofMillis(10));
+            Thread.sleep(50);
+            gate.countDown();
+
+            assertInstanceOf(TimeoutException.class, assertThrows(CompletionException.class, timedOut::join).getCause());
+            executor.submit(() -> {
+            }).join();
+            assertEquals(0, executed.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Should interrupt running command that timed out and keep worker")
+    void shouldInterruptRunningCommandThatTimedOutAndKeepWorker() throws Exception {
+        try (var executor = CommandExecutor.platformThreads(1)) {
+            var interrupted = new CountDownLatch(1);
+            var hung = executor.submit(() -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException exception) {
+                    interrupted.countDown();
+                }
+            }, Priority.HIGH, Duration.ofMillis(50));
+
+            assertInstanceOf(TimeoutException.class, assertThrows(CompletionException.class, hung::join).getCause());
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+            executor.submit(() -> sleep(50)).get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @DisplayName("Should never interrupt command after the one that timed out")
+    void shouldNeverInterruptCommandAfterTheOneThatTimedOut() throws Exception {
+        try (var executor = CommandExecutor.platformThreads(1)) {
+            var strayInterrupts = new AtomicInteger();
+            for (int i = 0; i < 300; i++) {
+                long spinNanos = TimeUnit.MICROSECONDS.toNanos(i % 3 * 500);
+                executor.submit(() -> spin(spinNanos), Priority.NORMAL, Duration.ofMillis(1));
+                executor.submit(() -> {
+                    if (Thread.currentThread().isInterrupted()) {
+                        strayInterrupts.incrementAndGet();
+                    }
+                });
+            }
+            executor.submit(() -> {
+            }).get(5, TimeUnit.SECONDS);
+
+            assertEquals(0, strayInterrupts.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Should complete future of command throwing error and keep worker")
+    void shouldCompleteFutureOfCommandThrowingErrorAndKeepWorker() throws Exception {
+        try (var executor = CommandExecutor.platformThreads(1)) {
+            var failing = executor.submit(() -> {
+                throw new AssertionError("Broken command");
+            });
+
+            assertInstanceOf(AssertionError.class, assertThrows(CompletionException.class, failing::join).getCause());
+            executor.submit(() -> {
+            }).get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @DisplayName("Should cancel queued commands and reject new ones on close")
+    void shouldCancelQueuedCommandsAndRejectNewOnesOnClose() throws InterruptedException {
+        var executor = CommandExecutor.platformThreads(1);
+        var gate = new CountDownLatch(1);
+        executor.submit(() -> await(gate));
+        Thread.sleep(50);
+        var queued = executor.submit(() -> {
+        });
+
+        executor.close();
+
+        assertThrows(CancellationException.class, queued::join);
+        assertThrows(RejectedExecutionException.class, () -> executor.submit(() -> {
+        }));
+    }
+
+    @Test
+    @DisplayName("Should complete every future submitted while closing")
+    void shouldCompleteEveryFutureSubmittedWhileClosing() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            var executor = CommandExecutor.virtualThreads(2);
+            var futures = new CopyOnWriteArrayList<CompletableFuture<Void>>();
+            var submitters = new ArrayList<Thread>();
+            for (int submitter = 0; submitter < 4; submitter++) {
+                var thread = new Thread(() -> {
+                    try {
+                        while (true) {
+                            futures.add(executor.submit(() -> {
+                            }));
+                        }
+                    } catch (RejectedExecutionException exception) {
+                        // the executor was closed
+                    }
+                });
+                submitters.add(thread);
+                thread.start();
+            }
+            Thread.sleep(2);
+            executor.close();
+            for (Thread submitter : submitters) {
+                submitter.join();
+            }
+
+            var all = CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+            assertDoesNotThrow(() -> all.exceptionally(throwable -> null).get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void await(CountDownLatch gate) {
+        try {
+            gate.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException exception) {
+            throw new IllegalStateException("Interrupted", exception);
+        }
+    }
+
+    private static void spin(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+}
@@ -0,0 +1,221 @@
+package pl.training.patterns.behavioral.comman;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandJournalTest {
+
+    private static final AtomicInteger EXECUTIONS = new AtomicInteger();
+
+    @TempDir
+    private Path directory;
+
+    private Path file() {
+        return directory.resolve("commands.journal");
+    }
+
+    @Test
+    @DisplayName("Should restore commands not completed before restart in registration order")
+    void shouldRestoreCommandsNotCompletedBeforeRestartInRegistrationOrder() {
+        try (var journal = new CommandJournal(file())) {
+            var first = journal.append(new Count(1)).join();
+            journal.append(new Count(2)).join();
+            journal.append(new Count(3)).join();
+            journal.complete(first).join();
+        }
+
+        try (var journal = new CommandJournal(file())) {
+            assertEquals(List.of(new Count(2), new Count(3)), new ArrayList<>(journal.pendingCommands().values()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should persist every concurrently registered command")
+    void shouldPersistEveryConcurrentlyRegisteredCommand() throws Exception {
+        try (var journal = new CommandJournal(file())) {
+            var invoker = new Invoker(journal);
+            var pool = Executors.newFixedThreadPool(8);
+            var registrations = new ArrayList<Future<?>>();
+            for (int i = 0; i < 400; i++) {
+                int number = i;
+                registrations.add(pool.submit(() -> invoker.register(new Count(number))));
+            }
+            for (Future<?> registration : registrations) {
+                registration.get();
+            }
+            pool.shutdown();
+        }
+
+        try (var journal = new CommandJournal(file())) {
+            assertEquals(400, journal.pendingCommands().size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should mark executed commands completed")
+    void shouldMarkExecutedCommandsCompleted() {
+        try (var journal = new CommandJournal(file())) {
+            var invoker = new Invoker(journal);
+            invoker.register(new Count(1));
+            invoker.register(new Count(2));
+        }
+
+        int executions = EXECUTIONS.get();
+        try (var journal = new CommandJournal(file()); var executor = CommandExecutor.platformThreads(2)) {
+            assertEquals(2, journal.pendingCommands().size());
+            new Invoker(journal).invokeAll(executor, Priority.NORMAL).join();
+        }
+        assertEquals(executions + 2, EXECUTIONS.get());
+
+        try (var journal = new CommandJournal(file())) {
+            assertTrue(journal.pendingCommands().isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop torn last record and keep issuing new ids")
+    void shouldDropTornLastRecordAndKeepIssuingNewIds() throws IOException {
+        long lastId;
+        try (var journal = new CommandJournal(file())) {
+            journal.append(new Count(1)).join();
+            lastId = journal.append(new Count(2)).join();
+        }
+        var bytes = Files.readAllBytes(file());
+        Files.write(file(), Arrays.copyOf(bytes, bytes.length - 3));
+
+        try (var journal = new CommandJournal(file())) {
+            assertEquals(List.of(new Count(1)), new ArrayList<>(journal.pendingCommands().values()));
+            assertTrue(journal.append(new Count(3)).join() >= lastId);
+        }
+        try (var journal = new CommandJournal(file())) {
+            assertEquals(List.of(new Count(1), new Count(3)), new ArrayList<>(journal.pendingCommands().values()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop last record with wrong checksum")
+    void shouldDropLastRecordWithWrongChecksum() throws IOException {
+        try (var journal = new CommandJournal(file())) {
+            journal.append(new Count(1)).join();
+            journal.append(new Count(2)).join();
+        }
+        var bytes = Files.readAllBytes(file());
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file(), bytes);
+
+        try (var journal = new CommandJournal(file())) {
+            assertEquals(List.of(new Count(1)), new ArrayList<>(journal.pendingCommands().values()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should compact completed commands away on restart")
+    void shouldCompactCompletedCommandsAwayOnRestart() throws IOException {
+        try (var journal = new CommandJournal(file())) {
+            for (int i = 0; i < 100; i++) {
+                journal.complete(journal.append(new Count(i)).join()).join();
+            }
+        }
+        long sizeBeforeCompaction = Files.size(file());
+
+        try (var journal = new CommandJournal(file())) {
+            assertTrue(journal.pendingCommands().isEmpty());
+        }
+        assertTrue(Files.size(file()) < sizeBeforeCompaction);
+        assertFalse(Files.exists(directory.resolve("commands.journal.compacted")));
+    }
+
+    @Test
+    @DisplayName("Should reject command that is not serializable")
+    void shouldRejectCommandThatIsNotSerializable() {
+        try (var journal = new CommandJournal(file())) {
+            assertThrows(IllegalArgumentException.class, () -> journal.append(() -> {
+            }));
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse to restore command class outside allow list")
+    void shouldRefuseToRestoreCommandClassOutsideAllowList() {
+        try (var journal = new CommandJournal(file())) {
+            journal.append(new Count(1)).join();
+        }
+
+        assertThrows(IllegalStateException.class, () -> new CommandJournal(file(), PrintTime.class.getName()));
+        try (var journal = new CommandJournal(file(), Count.class.getName())) {
+            assertEquals(1, journal.pendingCommands().size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject append after close")
+    void shouldRejectAppendAfterClose() {
+        var journal = new CommandJournal(file());
+        journal.close();
+
+        assertThrows(IllegalStateException.class, () -> journal.append(new Count(1)));
+    }
+
+    @Test
+    @DisplayName("Should complete every append racing with close")
+    void shouldCompleteEveryAppendRacingWithClose() throws Exception {
+        for (int round = 0; round < 10; round++) {
+            var journal = new CommandJournal(directory.resolve("race-" + round + ".journal"));
+            var appends = new CopyOnWriteArrayList<CompletableFuture<Long>>();
+            var appenders = new ArrayList<Thread>();
+            for (int appender = 0; appender < 4; appender++) {
+                var thread = new Thread(() -> {
+                    try {
+                        while (true) {
+                            appends.add(journal.append(new Count(0)));
+                        }
+                    } catch (IllegalStateException exception) {
+                        // the journal was closed
+                    }
+                });
+                appenders.add(thread);
+                thread.start();
+            }
+            Thread.sleep(5);
+            journal.close();
+            for (Thread appender : appenders) {
+                appender.join();
+            }
+
+            var all = CompletableFuture.allOf(appends.toArray(CompletableFuture[]::new));
+            assertDoesNotThrow(() -> all.exceptionally(throwable -> null).get(5, TimeUnit.SECONDS));
+            long written = appends.stream().filter(append -> !append.isCompletedExceptionally()).count();
+            try (var reopened = new CommandJournal(directory.resolve("race-" + round + ".journal"))) {
+                assertEquals(written, reopened.pendingCommands().size());
+            }
+        }
+    }
+
+    record Count(int number) implements Command, Serializable {
+
+        @Override
+        public void execute() {
+            EXECUTIONS.incrementAndGet();
+        }
+
+    }
+
+}
@@ -0,0 +1,110 @@
+package pl.training.patterns.behavioral.interpreter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnEvaluationTest {
+
+    private static final int ROWS = 50;
+
+    @Test
+    @DisplayName("Should evaluate columns exactly like rows")
+    void shouldEvaluateColumnsExactlyLikeRows() {
+        var random = new Random(3);
+        for (int round = 0; round < 100; round++) {
+            var expression = Expressions.random(random, 6);
+            var columns = new HashMap<String, double[]>();
+            for (int variable = 0; variable < Expressions.VARIABLES; variable++) {
+                columns.put("v" + variable, random.doubles(ROWS).toArray());
+            }
+
+            var results = expression.evaluateColumns(columns);
+
+            for (int row = 0; row < ROWS; row++) {
+                assertEquals(expression.evaluate(row(columns, row)), results[row]);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should leave input columns unchanged")
+    void shouldLeaveInputColumnsUnchanged() {
+        var a = new double[]{1, 2, 3};
+        var b = new double[]{4, 5, 6};
+        var columns = Map.of("a", a, "b", b);
+        var expression = new Operation(new Operation(new Variable("a"), new Variable("b"), new Plus()), new Variable("a"), new Multiply());
+
+        assertArrayEquals(new double[]{5, 14, 27}, expression.evaluateColumns(columns));
+        var variable = new Variable("a").evaluateColumns(columns);
+        variable[0] = 100;
+
+        assertArrayEquals(new double[]{1, 2, 3}, a);
+        assertArrayEquals(new double[]{4, 5, 6}, b);
+    }
+
+    @Test
+    @DisplayName("Should evaluate the same subtree on both sides")
+    void shouldEvaluateTheSameSubtreeOnBothSides() {
+        var sum = new Operation(new Variable("a"), new Literal(1), new Plus());
+        var expression = new Operation(sum, sum, new Multiply());
+
+        assertArrayEquals(new double[]{4, 9}, expression.evaluateColumns(Map.of("a", new double[]{1, 2})));
+    }
+
+    @Test
+    @DisplayName("Should apply literal operands on either side")
+    void shouldApplyLiteralOperandsOnEitherSide() {
+        var a = new Variable("a");
+        var expression = new Operation(
+                new Operation(new Literal(10), a, new Minus()),
+                new Operation(new Operation(a, new Literal(2), new Multiply()), new Operation(new Literal(1), new Literal(3), new Plus()), new Minus()),
+                new Multiply());
+
+        assertArrayEquals(new double[]{-18, 0, 24}, expression.evaluateColumns(Map.of("a", new double[]{1, 2, 4})));
+        assertArrayEquals(new double[]{3, 3}, new Operation(new Literal(1), new Literal(2), new Plus()).evaluateColumns(Map.of("a", new double[2])));
+    }
+
+    @Test
+    @DisplayName("Should evaluate custom operators and lambda expressions row by row")
+    void shouldEvaluateCustomOperatorsAndLambdaExpressionsRowByRow() {
+        Expression lambda = context -> context.get("a") + context.get("b");
+        var expression = new Operation(lambda, new Variable("a"), (a, b) -> a / b);
+
+        assertArrayEquals(new double[]{3, 2}, expression.evaluateColumns(Map.of("a", new double[]{2, 4}, "b", new double[]{4, 4})));
+    }
+
+    @Test
+    @DisplayName("Should reject columns of different length")
+    void shouldRejectColumnsOfDifferentLength() {
+        var expression = new Variable("a");
+
+        assertThrows(IllegalArgumentException.class, () -> expression.evaluateColumns(Map.of("a", new double[2], "b", new double[3])));
+    }
+
+    @Test
+    @DisplayName("Should reject missing column")
+    void shouldRejectMissingColumn() {
+        var expression = new Variable("a");
+
+        assertThrows(IllegalArgumentException.class, () -> expression.evaluateColumns(Map.of("b", new double[3])));
+    }
+
+    @Test
+    @DisplayName("Should return no rows without columns")
+    void shouldReturnNoRowsWithoutColumns() {
+        assertEquals(0, new Literal(1).evaluateColumns(Map.of()).length);
+    }
+
+    private Map<String, Double> row(Map<String, double[]> columns, int row) {
+        var values = new HashMap<String, Double>();
+        columns.forEach((name, column) -> values.put(name, column[row]));
+        return values;
+    }
+
+}
@@ -0,0 +1,83 @@
+package pl.training.patterns.behavioral.interpreter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledExpressionTest {
+
+    private final BytecodeCompiler bytecodeCompiler = new BytecodeCompiler();
+
+    @Test
+    @DisplayName("Should evaluate compiled expressions exactly like interpreted ones")
+    void shouldEvaluateCompiledExpressionsExactlyLikeInterpretedOnes() {
+        var random = new Random(1);
+        for (int round = 0; round < 200; round++) {
+            var expression = Expressions.random(random, 8);
+            var values = Expressions.values(random);
+            var slots = new VariableSlots();
+            var closures = expression.compile(slots);
+            var bytecode = bytecodeCompiler.compile(expression, slots);
+            var context = slots.context(values);
+
+            var expected = expression.evaluate(values);
+            assertEquals(expected, closures.evaluate(context));
+            assertEquals(expected, bytecode.evaluate(context));
+        }
+    }
+
+    @Test
+    @DisplayName("Should fall back to closures for custom operators")
+    void shouldFallBackToClosuresForCustomOperators() {
+        var expression = new Operation(new Variable("a"), new Literal(2), Math::pow);
+        var slots = new VariableSlots();
+
+        assertEquals(9.0, bytecodeCompiler.compile(expression, slots).evaluate(slots.context(Map.of("a", 3.0))));
+    }
+
+    @Test
+    @DisplayName("Should interpret custom expressions that do not compile themselves")
+    void shouldInterpretCustomExpressionsThatDoNotCompileThemselves() {
+        var expression = new Operation(new Square("a"), new Variable("b"), new Plus());
+        var slots = new VariableSlots();
+        slots.slotOf("a");
+        var values = Map.of("a", 3.0, "b", 1.0);
+
+        assertEquals(expression.evaluate(values), expression.compile(slots).evaluate(slots.context(values)));
+        assertEquals(expression.evaluate(values), bytecodeCompiler.compile(expression, slots).evaluate(slots.context(values)));
+    }
+
+    @Test
+    @DisplayName("Should compile lambda expressions")
+    void shouldCompileLambdaExpressions() {
+        Expression expression = context -> context.get("a") / 2;
+        var slots = new VariableSlots();
+        slots.slotOf("a");
+
+        assertEquals(1.5, expression.compile(slots).evaluate(slots.context(Map.of("a", 3.0))));
+    }
+
+    @Test
+    @DisplayName("Should reject context without all variables")
+    void shouldRejectContextWithoutAllVariables() {
+        var slots = new VariableSlots();
+        new Variable("a").compile(slots);
+
+        assertThrows(IllegalArgumentException.class, () -> slots.context(Map.of()));
+    }
+
+    private record Square(String name) implements Expression {
+
+        @Override
+        public double evaluate(Map<String, Double> context) {
+            var value = context.get(name);
+            return value * value;
+        }
+
+    }
+
+}
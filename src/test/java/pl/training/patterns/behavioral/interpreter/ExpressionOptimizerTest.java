@@ -0,0 +1,132 @@
+package pl.training.patterns.behavioral.interpreter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpressionOptimizerTest {
+
+    private final ExpressionOptimizer optimizer = new ExpressionOptimizer();
+
+    @Test
+    @DisplayName("Should evaluate optimized expressions exactly like originals")
+    void shouldEvaluateOptimizedExpressionsExactlyLikeOriginals() {
+        var random = new Random(5);
+        for (int round = 0; round < 300; round++) {
+            var expression = Expressions.random(random, 7);
+            var values = new HashMap<String, Double>();
+            for (int variable = 0; variable < Expressions.VARIABLES; variable++) {
+                values.put("v" + variable, random.nextInt(8) == 0 ? -0.0 : random.nextInt(7));
+            }
+
+            var optimized = optimizer.optimize(expression);
+
+            assertEquals(expression.evaluate(values), optimized.evaluate(values));
+            assertTrue(size(optimized) <= size(expression));
+            assertSame(optimized, optimizer.optimize(expression));
+        }
+    }
+
+    @Test
+    @DisplayName("Should fold subtrees made of literals only")
+    void shouldFoldSubtreesMadeOfLiteralsOnly() {
+        var expression = new Operation(new Operation(new Literal(2), new Literal(3), new Multiply()), new Variable("a"), new Plus());
+
+        assertEquals(new Operation(new Literal(6), new Variable("a"), new Plus()), optimizer.optimize(expression));
+    }
+
+    @Test
+    @DisplayName("Should not regroup operations by default")
+    void shouldNotRegroupOperationsByDefault() {
+        var expression = new Operation(new Literal(1e308), new Operation(new Variable("a"), new Literal(1e-308), new Multiply()), new Multiply());
+        var values = Map.of("a", 1e308);
+
+        var optimized = optimizer.optimize(expression);
+
+        assertEquals(expression, optimized);
+        assertEquals(expression.evaluate(values), optimized.evaluate(values));
+        assertFalse(Double.isInfinite(optimized.evaluate(values)));
+    }
+
+    @Test
+    @DisplayName("Should regroup constants when reassociation is enabled")
+    void shouldRegroupConstantsWhenReassociationIsEnabled() {
+        var reassociating = new ExpressionOptimizer(100, true);
+        var expression = new Operation(
+                new Operation(new Operation(new Literal(2), new Variable("a"), new Multiply()), new Literal(3), new Multiply()),
+                new Literal(1),
+                new Plus());
+
+        var optimized = (Operation) reassociating.optimize(expression);
+
+        assertEquals(new Literal(1), optimized.getLeft());
+        assertEquals(new Operation(new Literal(6), new Variable("a"), new Multiply()), optimized.getRight());
+    }
+
+    @Test
+    @DisplayName("Should keep adding positive zero because it turns negative zero positive")
+    void shouldKeepAddingPositiveZeroBecauseItTurnsNegativeZeroPositive() {
+        var expression = new Operation(new Variable("a"), new Literal(0.0), new Plus());
+        var values = Map.of("a", -0.0);
+
+        var optimized = optimizer.optimize(expression);
+
+        assertEquals(expression, optimized);
+        assertEquals(0.0, optimized.evaluate(values));
+    }
+
+    @Test
+    @DisplayName("Should remove identity operations")
+    void shouldRemoveIdentityOperations() {
+        var expression = new Operation(
+                new Operation(new Operation(new Variable("q"), new Literal(1), new Multiply()), new Literal(0.0), new Minus()),
+                new Literal(-0.0),
+                new Plus());
+
+        assertEquals(new Variable("q"), optimizer.optimize(expression));
+    }
+
+    @Test
+    @DisplayName("Should share structurally equal subtrees")
+    void shouldShareStructurallyEqualSubtrees() {
+        var expression = new Operation(
+                new Operation(new Variable("x"), new Variable("y"), new Minus()),
+                new Operation(new Variable("x"), new Variable("y"), new Minus()),
+                new Minus());
+
+        var optimized = (Operation) optimizer.optimize(expression);
+
+        assertSame(optimized.getLeft(), optimized.getRight());
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used expressions when full")
+    void shouldEvictLeastRecentlyUsedExpressionsWhenFull() {
+        var bounded = new ExpressionOptimizer(2);
+        var frequent = new Operation(new Variable("a"), new Variable("b"), new Plus());
+        var optimized = bounded.optimize(frequent);
+
+        for (int variable = 0; variable < 10; variable++) {
+            bounded.optimize(new Operation(new Variable("v" + variable), new Literal(2), new Multiply()));
+            assertSame(optimized, bounded.optimize(frequent));
+        }
+
+        assertEquals(2, bounded.cachedExpressions());
+    }
+
+    @Test
+    @DisplayName("Should reject capacity that is not positive")
+    void shouldRejectCapacityThatIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new ExpressionOptimizer(0));
+    }
+
+    private int size(Expression expression) {
+        return expression instanceof Operation operation ? 1 + size(operation.getLeft()) + size(operation.getRight()) : 1;
+    }
+
+}
@@ -0,0 +1,31 @@
+package pl.training.patterns.behavioral.interpreter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+class Expressions {
+
+    static final int VARIABLES = 300;
+
+    static Expression random(Random random, int depth) {
+        if (depth == 0 || random.nextInt(4) == 0) {
+            return random.nextBoolean() ? new Literal(random.nextInt(20) - 10 + 0.5) : new Variable("v" + random.nextInt(VARIABLES));
+        }
+        BiOperator operator = switch (random.nextInt(3)) {
+            case 0 -> new Plus();
+            case 1 -> new Minus();
+            default -> new Multiply();
+        };
+        return new Operation(random(random, depth - 1), random(random, depth - 1), operator);
+    }
+
+    static Map<String, Double> values(Random random) {
+        var values = new HashMap<String, Double>();
+        for (int variable = 0; variable < VARIABLES; variable++) {
+            values.put("v" + variable, random.nextDouble() * 10);
+        }
+        return values;
+    }
+
+}
@@ -0,0 +1,199 @@
+package pl.training.patterns.behavioral.observer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncEventsBusTest {
+
+    private static final int PUBLISHERS = 4;
+    private static final int EVENTS_PER_PUBLISHER = 50_000;
+
+    static Stream<Arguments> waitStrategies() {
+        return Stream.of(
+                Arguments.of("blocking", WaitStrategy.blocking()),
+                Arguments.of("yielding", WaitStrategy.yielding()),
+                Arguments.of("busy spin", WaitStrategy.busySpin()));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("waitStrategies")
+    @DisplayName("Should deliver every event to every consumer in publish order")
+    void shouldDeliverEveryEventToEveryConsumerInPublishOrder(String name, WaitStrategy waitStrategy) throws InterruptedException {
+        var bus = new AsyncEventsBus(256, waitStrategy);
+        var consumers = List.of(new OrderCheckingConsumer(), new OrderCheckingConsumer());
+        consumers.forEach(bus::addConsumer);
+        bus.start();
+
+        var publishers = new ArrayList<Thread>();
+        for (int publisher = 0; publisher < PUBLISHERS; publisher++) {
+            int publisherId = publisher;
+            var thread = new Thread(() -> {
+                for (int i = 0; i < EVENTS_PER_PUBLISHER; i++) {
+                    bus.publish(event(publisherId + ":" + i));
+                }
+            });
+            publishers.add(thread);
+            thread.start();
+        }
+        for (Thread publisher : publishers) {
+            publisher.join();
+        }
+        bus.close();
+
+        for (OrderCheckingConsumer consumer : consumers) {
+            assertFalse(consumer.outOfOrder.get());
+            assertEquals((long) PUBLISHERS * EVENTS_PER_PUBLISHER, consumer.received.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Should mark last event of every batch")
+    void shouldMarkLastEventOfEveryBatch() throws InterruptedException {
+        var bus = new AsyncEventsBus(16, WaitStrategy.blocking());
+        var payloads = new CopyOnWriteArrayList<String>();
+        var batchEnds = new CopyOnWriteArrayList<String>();
+        bus.addConsumer((event, endOfBatch) -> {
+            payloads.add(event.getPayload());
+            if (endOfBatch) {
+                batchEnds.add(event.getPayload());
+            }
+        });
+        bus.start();
+
+        for (int i = 0; i < 100; i++) {
+            bus.publish(event("event " + i));
+        }
+        bus.close();
+
+        assertEquals(100, payloads.size());
+        assertFalse(batchEnds.isEmpty());
+        assertEquals("event 99", batchEnds.get(batchEnds.size() - 1));
+    }
+
+    @Test
+    @DisplayName("Should keep delivering after consumer failure")
+    void shouldKeepDeliveringAfterConsumerFailure() throws InterruptedException {
+        var bus = new AsyncEventsBus(8, WaitStrategy.blocking());
+        var received = new AtomicLong();
+        bus.addConsumer(event -> {
+            received.incrementAndGet();
+            throw new IllegalStateException("Consumer failed");
+        });
+        bus.start();
+
+        for (int i = 0; i < 20; i++) {
+            bus.publish(event("event " + i));
+        }
+        bus.close();
+
+        assertEquals(20, received.get());
+    }
+
+    @Test
+    @DisplayName("Should reject publish before start and after close")
+    void shouldRejectPublishBeforeStartAndAfterClose() throws InterruptedException {
+        var bus = new AsyncEventsBus(8, WaitStrategy.blocking());
+        bus.addConsumer(event -> {
+        });
+
+        assertThrows(IllegalStateException.class, () -> bus.publish(event("early")));
+        bus.start();
+        bus.close();
+        assertThrows(IllegalStateException.class, () -> bus.publish(event("late")));
+    }
+
+    @Test
+    @DisplayName("Should reject consumer added after start")
+    void shouldRejectConsumerAddedAfterStart() throws InterruptedException {
+        var bus = new AsyncEventsBus(8, WaitStrategy.blocking());
+        bus.start();
+
+        assertThrows(IllegalStateException.class, () -> bus.addConsumer(event -> {
+        }));
+        bus.close();
+    }
+
+    @Test
+    @DisplayName("Should reject capacity that is not a power of two")
+    void shouldRejectCapacityThatIsNotAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new AsyncEventsBus(100, WaitStrategy.blocking()));
+        assertThrows(IllegalArgumentException.class, () -> new AsyncEventsBus(0, WaitStrategy.blocking()));
+    }
+
+    @Test
+    @DisplayName("Should deliver every publish that succeeded while closing")
+    void shouldDeliverEveryPublishThatSucceededWhileClosing() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            var bus = new AsyncEventsBus(64, WaitStrategy.yielding());
+            var received = new AtomicLong();
+            bus.addConsumer(event -> received.incrementAndGet());
+            bus.start();
+
+            var published = new AtomicLong();
+            var publishers = new ArrayList<Thread>();
+            for (int publisher = 0; publisher < PUBLISHERS; publisher++) {
+                var thread = new Thread(() -> {
+                    try {
+                        while (true) {
+                            bus.publish(event("event"));
+                            published.incrementAndGet();
+                        }
+                    } catch (IllegalStateException exception) {
+                        // the bus was closed
+                    }
+                });
+                publishers.add(thread);
+                thread.start();
+            }
+            Thread.sleep(5);
+            bus.close();
+            for (Thread publisher : publishers) {
+                publisher.join();
+            }
+
+            assertEquals(published.get(), received.get());
+        }
+    }
+
+    private static ServerEvent event(String payload) {
+        return ServerEvent.builder().payload(payload).build();
+    }
+
+    private static class OrderCheckingConsumer implements BatchConsumer {
+
+        private final long[] lastByPublisher = new long[PUBLISHERS];
+        private final AtomicLong received = new AtomicLong();
+        private final AtomicBoolean outOfOrder = new AtomicBoolean();
+
+        OrderCheckingConsumer() {
+            Arrays.fill(lastByPublisher, -1);
+        }
+
+        @Override
+        public void accept(ServerEvent event, boolean endOfBatch) {
+            String[] fields = event.getPayload().split(":");
+            int publisher = Integer.parseInt(fields[0]);
+            long index = Long.parseLong(fields[1]);
+            if (index != lastByPublisher[publisher] + 1) {
+                outOfOrder.set(true);
+            }
+            lastByPublisher[publisher] = index;
+            received.incrementAndGet();
+        }
+
+    }
+
+}
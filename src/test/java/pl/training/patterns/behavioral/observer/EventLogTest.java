@@ -0,0 +1,195 @@
+package pl.training.patterns.behavioral.observer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLogTest {
+
+    private static final int SEGMENT_SIZE = 256;
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Should assign consecutive offsets and replay from any of them")
+    void shouldAssignConsecutiveOffsetsAndReplayFromAnyOfThem() throws IOException {
+        try (var log = new EventLog(directory, SEGMENT_SIZE, 1 << 20, Duration.ofDays(1))) {
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i, log.append(new ServerEvent("event " + i)));
+            }
+
+            var replayed = new ArrayList<ServerEvent>();
+            assertEquals(100, log.replay(50, replayed::add));
+
+            assertEquals(50, replayed.size());
+            assertEquals("event 50", replayed.get(0).getPayload());
+            assertEquals(50, replayed.get(0).getOffset());
+            assertEquals(99, replayed.get(49).getOffset());
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep empty payload and event without payload")
+    void shouldKeepEmptyPayloadAndEventWithoutPayload() throws IOException {
+        try (var log = new EventLog(directory, SEGMENT_SIZE, 1 << 20, Duration.ofDays(1))) {
+            log.append(new ServerEvent(""));
+            log.append(new ServerEvent(null));
+            log.append(new ServerEvent("zażółć"));
+
+            assertEquals(Arrays.asList("", null, "zażółć"), payloads(log, 0));
+        }
+        try (var log = new EventLog(directory, SEGMENT_SIZE, 1 << 20, Duration.ofDays(1))) {
+            assertEquals(Arrays.asList("", null, "zażółć"), payloads(log, 0));
+        }
+    }
+
+    @Test
+    @DisplayName("Should continue after last event when reopened")
+    void shouldContinueAfterLastEventWhenReopened() throws IOException {
+        try (var log = new EventLog(directory, SEGMENT_SIZE, 1 << 20, Duration.ofDays(1))) {
+            for (int i = 0; i < 30; i++) {
+                log.append(new ServerEvent("event " + i));
+            }
+        }
+
+        try (var log = new EventLog(directory, SEGMENT_SIZE, 1 << 20, Duration.ofDays(1))) {
+            assertEquals(30, log.nextOffset());
+            assertEquals(30, log.append(new ServerEvent("event 30")));
+            assertEquals(31, payloads(log, 0).size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should recover appended events without close")
+    void shouldRecoverAppendedEventsWithoutClose() throws IOException {
+        var log = new EventLog(directory, SEGMENT_SIZE, 1 << 20, Duration.ofDays(1));
+        for (int i = 0; i < 30; i++) {
+            log.append(new ServerEvent("event " + i));
+        }
+
+        try (var recovered = new EventLog(directory, SEGMENT_SIZE, 1 << 20, Duration.ofDays(1))) {
+            assertEquals(30, recovered.nextOffset());
+            assertEquals("event 29", payloads(recovered, 29).get(0));
+        }
+        log.close();
+    }
+
+    @Test
+    @DisplayName("Should delete oldest segments over size retention")
+    void shouldDeleteOldestSegmentsOverSizeRetention() throws IOException {
+        try (var log = new EventLog(directory, SEGMENT_SIZE, 4 * SEGMENT_SIZE, Duration.ofDays(1))) {
+            for (int i = 0; i < 1_000; i++) {
+                log.append(new ServerEvent("event " + i));
+            }
+
+            assertTrue(log.firstOffset() > 0);
+            assertTrue(segmentFiles() <= 4);
+            assertEquals(log.nextOffset() - log.firstOffset(), payloads(log, 0).size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should delete segments older than time retention by log clock")
+    void shouldDeleteSegmentsOlderThanTimeRetentionByLogClock() throws IOException {
+        var clock = new MutableClock(NOW);
+        try (var log = new EventLog(directory, SEGMENT_SIZE, 1 << 20, Duration.ofHours(1), clock, 1, Duration.ZERO)) {
+            for (int i = 0; i < 30; i++) {
+                log.append(new ServerEvent("old " + i));
+            }
+            long firstRecent = log.nextOffset();
+            clock.advance(Duration.ofHours(2));
+            for (int i = 0; i < 30; i++) {
+                log.append(new ServerEvent("recent " + i));
+            }
+
+            assertTrue(log.firstOffset() > 0);
+            assertTrue(log.firstOffset() <= firstRecent);
+            assertEquals("recent 0", payloads(log, firstRecent).get(0));
+        }
+    }
+
+    @Test
+    @DisplayName("Should delete expired segments on append without rolling")
+    void shouldDeleteExpiredSegmentsOnAppendWithoutRolling() throws IOException {
+        var clock = new MutableClock(NOW);
+        try (var log = new EventLog(directory, SEGMENT_SIZE, 1 << 20, Duration.ofHours(1), clock, 16, Duration.ofSeconds(1))) {
+            while (segmentFiles() < 3) {
+                log.append(new ServerEvent("old"));
+            }
+            long firstInActiveSegment = log.nextOffset() - 1;
+            clock.advance(Duration.ofHours(2));
+
+            long offset = log.append(new ServerEvent("recent"));
+
+            assertEquals(offset, log.nextOffset() - 1);
+            assertEquals(1, segmentFiles());
+            assertTrue(log.firstOffset() <= firstInActiveSegment);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject event larger than segment")
+    void shouldRejectEventLargerThanSegment() throws IOException {
+        try (var log = new EventLog(directory, SEGMENT_SIZE, 1 << 20, Duration.ofDays(1))) {
+            assertThrows(IllegalArgumentException.class, () -> log.append(new ServerEvent("x".repeat(SEGMENT_SIZE))));
+        }
+    }
+
+    private static List<String> payloads(EventLog log, long fromOffset) {
+        var payloads = new ArrayList<String>();
+        log.replay(fromOffset, event -> payloads.add(event.getPayload()));
+        return payloads;
+    }
+
+    private long segmentFiles() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    static class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+    }
+
+}
@@ -0,0 +1,319 @@
+package pl.training.patterns.behavioral.observer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventsBusTest {
+
+    private final EventsBus bus = new EventsBus();
+
+    @Nested
+    @DisplayName("Topic Tests")
+    class TopicTests {
+
+        @Test
+        @DisplayName("Should deliver events to consumers of matching prefixes")
+        void shouldDeliverEventsToConsumersOfMatchingPrefixes() {
+            var all = new ArrayList<String>();
+            var orders = new ArrayList<String>();
+            var paidOrders = new ArrayList<String>();
+            bus.addConsumer(recordingTo(all));
+            bus.addConsumer("order", recordingTo(orders));
+            bus.addConsumer("order.paid", recordingTo(paidOrders));
+
+            bus.publish(new ServerEvent("order.paid 1"));
+            bus.publish(new ServerEvent("order.new"));
+            bus.publish(new ServerEvent("server started"));
+            bus.publish(new ServerEvent(""));
+
+            assertEquals(List.of("order.paid 1", "order.new", "server started", ""), all);
+            assertEquals(List.of("order.paid 1", "order.new"), orders);
+            assertEquals(List.of("order.paid 1"), paidOrders);
+        }
+
+        @Test
+        @DisplayName("Should deliver event without payload to consumers of all events")
+        void shouldDeliverEventWithoutPayloadToConsumersOfAllEvents() {
+            var all = new ArrayList<String>();
+            var orders = new ArrayList<String>();
+            bus.addConsumer(recordingTo(all));
+            bus.addConsumer("order", recordingTo(orders));
+
+            bus.publish(new ServerEvent(null));
+
+            assertEquals(1, all.size());
+            assertNull(all.get(0));
+            assertEquals(List.of(), orders);
+        }
+
+        @Test
+        @DisplayName("Should deliver event once to consumer subscribed to overlapping prefixes")
+        void shouldDeliverEventOnceToConsumerSubscribedToOverlappingPrefixes() {
+            var shorterFirst = new ArrayList<String>();
+            var longerFirst = new ArrayList<String>();
+            var shorterFirstConsumer = recordingTo(shorterFirst);
+            var longerFirstConsumer = recordingTo(longerFirst);
+            bus.addConsumer("order", shorterFirstConsumer);
+            bus.addConsumer("order.paid", shorterFirstConsumer);
+            bus.addConsumer("order.paid", longerFirstConsumer);
+            bus.addConsumer("", longerFirstConsumer);
+
+            bus.publish(new ServerEvent("order.paid 1"));
+
+            assertEquals(List.of("order.paid 1"), shorterFirst);
+            assertEquals(List.of("order.paid 1"), longerFirst);
+        }
+
+        @Test
+        @DisplayName("Should ignore consumer added twice to same prefix")
+        void shouldIgnoreConsumerAddedTwiceToSamePrefix() {
+            var orders = new ArrayList<String>();
+            var consumer = recordingTo(orders);
+            bus.addConsumer("order", consumer);
+            bus.addConsumer("order", consumer);
+
+            bus.publish(new ServerEvent("order.new"));
+
+            assertEquals(List.of("order.new"), orders);
+        }
+
+        @Test
+        @DisplayName("Should stop delivering to removed consumer and prune its topics")
+        void shouldStopDeliveringToRemovedConsumerAndPruneItsTopics() {
+            var paidOrders = new ArrayList<String>();
+            var consumer = recordingTo(paidOrders);
+            bus.addConsumer("order.paid", consumer);
+            bus.addConsumer("order", event -> {
+            });
+            assertEquals(10, bus.topicCount());
+
+            bus.removeConsumer(consumer);
+            bus.publish(new ServerEvent("order.paid 1"));
+
+            assertEquals(List.of(), paidOrders);
+            assertEquals(5, bus.topicCount());
+        }
+
+    }
+
+    @Nested
+    @DisplayName("Event Log Tests")
+    class EventLogTests {
+
+        @TempDir
+        private Path directory;
+
+        @Test
+        @DisplayName("Should deliver live events with their log offsets")
+        void shouldDeliverLiveEventsWithTheirLogOffsets() throws IOException {
+            try (var log = new EventLog(directory, 4096, 1 << 20, Duration.ofDays(1))) {
+                var loggedBus = new EventsBus(log);
+                var offsets = new ArrayList<Long>();
+                loggedBus.addConsumer(event -> offsets.add(event.getOffset()));
+
+                loggedBus.publish(new ServerEvent("first"));
+                loggedBus.publish(new ServerEvent("second"));
+
+                assertEquals(List.of(0L, 1L), offsets);
+            }
+        }
+
+        @Test
+        @DisplayName("Should deliver events without log offset when bus has no log")
+        void shouldDeliverEventsWithoutLogOffsetWhenBusHasNoLog() {
+            var offsets = new ArrayList<Long>();
+            bus.addConsumer(event -> offsets.add(event.getOffset()));
+
+            bus.publish(new ServerEvent("first"));
+
+            assertEquals(List.of(ServerEvent.NO_OFFSET), offsets);
+        }
+
+        @Test
+        @DisplayName("Should replay then follow live events without gaps or duplicates")
+        void shouldReplayThenFollowLiveEventsWithoutGapsOrDuplicates() throws Exception {
+            try (var log = new EventLog(directory, 4096, 1 << 30, Duration.ofDays(1))) {
+                var loggedBus = new EventsBus(log);
+                var publishers = new ArrayList<Thread>();
+                for (int publisher = 0; publisher < 2; publisher++) {
+                    var thread = new Thread(() -> {
+                        for (int i = 0; i < 5_000; i++) {
+                            loggedBus.publish(new ServerEvent("order." + i));
+                        }
+                    });
+                    publishers.add(thread);
+                    thread.start();
+                }
+                Thread.sleep(5);
+
+                var offsets = new ConcurrentSkipListSet<Long>();
+                var duplicates = new AtomicLong();
+                loggedBus.addConsumer("order.", event -> {
+                    if (!offsets.add(event.getOffset())) {
+                        duplicates.incrementAndGet();
+                    }
+                }, 0);
+                for (Thread publisher : publishers) {
+                    publisher.join();
+                }
+
+                assertEquals(0, duplicates.get());
+                assertEquals(10_000, offsets.size());
+                assertEquals(9_999, offsets.last());
+            }
+        }
+
+        @Test
+        @DisplayName("Should append while another publisher is still delivering")
+        void shouldAppendWhileAnotherPublisherIsStillDelivering() throws Exception {
+            try (var log = new EventLog(directory, 4096, 1 << 20, Duration.ofDays(1))) {
+                var loggedBus = new EventsBus(log);
+                var slowDeliveryStarted = new CountDownLatch(1);
+                var releaseSlowDelivery = new CountDownLatch(1);
+                loggedBus.addConsumer("slow", event -> {
+                    slowDeliveryStarted.countDown();
+                    try {
+                        releaseSlowDelivery.await();
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                var slowPublisher = new Thread(() -> loggedBus.publish(new ServerEvent("slow")));
+                slowPublisher.start();
+                slowDeliveryStarted.await();
+
+                var fastPublish = CompletableFuture.runAsync(() -> loggedBus.publish(new ServerEvent("fast")));
+
+                assertDoesNotThrow(() -> fastPublish.get(5, TimeUnit.SECONDS));
+                releaseSlowDelivery.countDown();
+                slowPublisher.join();
+                assertEquals(2, log.nextOffset());
+            }
+        }
+
+        @Test
+        @DisplayName("Should stop delivering to removed replaying consumer")
+        void shouldStopDeliveringToRemovedReplayingConsumer() throws IOException {
+            try (var log = new EventLog(directory, 4096, 1 << 20, Duration.ofDays(1))) {
+                var loggedBus = new EventsBus(log);
+                loggedBus.publish(new ServerEvent("first"));
+                var payloads = new ArrayList<String>();
+                var consumer = recordingTo(payloads);
+                loggedBus.addConsumer("", consumer, 0);
+
+                loggedBus.publish(new ServerEvent("second"));
+                loggedBus.removeConsumer(consumer);
+                loggedBus.publish(new ServerEvent("third"));
+
+                assertEquals(List.of("first", "second"), payloads);
+            }
+        }
+
+    }
+
+    @Nested
+    @DisplayName("Mailbox Tests")
+    class MailboxTests {
+
+        @Test
+        @DisplayName("Should not let slow consumer delay other consumers")
+        void shouldNotLetSlowConsumerDelayOtherConsumers() {
+            var gate = new CountDownLatch(1);
+            Consumer<ServerEvent> slow = event -> {
+                try {
+                    gate.await();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            };
+            var fast = new CopyOnWriteArrayList<String>();
+            bus.addConsumer("", slow, 10, OverflowPolicy.DROP_NEWEST);
+            bus.addConsumer("", recordingTo(fast), 1_000, OverflowPolicy.BLOCK);
+
+            for (int i = 0; i < 500; i++) {
+                bus.publish(new ServerEvent("event " + i));
+            }
+
+            MailboxTest.await(() -> fast.size() == 500);
+            var metrics = bus.mailboxMetrics().get(slow);
+            assertEquals(499, metrics.lag() + metrics.dropped());
+            gate.countDown();
+        }
+
+        @Test
+        @DisplayName("Should reuse mailbox of consumer subscribed to another prefix")
+        void shouldReuseMailboxOfConsumerSubscribedToAnotherPrefix() {
+            var payloads = new CopyOnWriteArrayList<String>();
+            var consumer = recordingTo(payloads);
+            bus.addConsumer("order", consumer, 10, OverflowPolicy.BLOCK);
+            bus.addConsumer("payment", consumer, 10, OverflowPolicy.BLOCK);
+            var mailboxThreads = Thread.getAllStackTraces().keySet().stream()
+                    .filter(thread -> thread.getName().startsWith("mailbox-"))
+                    .count();
+
+            bus.publish(new ServerEvent("order.new"));
+            bus.publish(new ServerEvent("payment.new"));
+
+            MailboxTest.await(() -> payloads.size() == 2);
+            assertEquals(1, bus.mailboxMetrics().size());
+            bus.addConsumer("order", consumer, 10, OverflowPolicy.BLOCK);
+            assertEquals(mailboxThreads, Thread.getAllStackTraces().keySet().stream()
+                    .filter(thread -> thread.getName().startsWith("mailbox-"))
+                    .count());
+            bus.removeConsumer(consumer);
+            assertTrue(bus.mailboxMetrics().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should not block other publishers while one waits on full mailbox")
+        void shouldNotBlockOtherPublishersWhileOneWaitsOnFullMailbox(@TempDir Path directory) throws Exception {
+            try (var log = new EventLog(directory, 4096, 1 << 20, Duration.ofDays(1))) {
+                var loggedBus = new EventsBus(log);
+                var gate = new CountDownLatch(1);
+                loggedBus.addConsumer("slow", event -> {
+                    try {
+                        gate.await();
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    }
+                }, 1, OverflowPolicy.BLOCK);
+                var blockedPublisher = CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < 3; i++) {
+                        loggedBus.publish(new ServerEvent("slow " + i));
+                    }
+                });
+                MailboxTest.await(() -> log.nextOffset() == 3);
+
+                loggedBus.publish(new ServerEvent("fast"));
+
+                assertEquals(4, log.nextOffset());
+                assertFalse(blockedPublisher.isDone());
+                gate.countDown();
+                blockedPublisher.get(5, TimeUnit.SECONDS);
+            }
+        }
+
+    }
+
+    static Consumer<ServerEvent> recordingTo(List<String> payloads) {
+        return event -> payloads.add(event.getPayload());
+    }
+
+}
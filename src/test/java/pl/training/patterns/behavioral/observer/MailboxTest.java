@@ -0,0 +1,135 @@
+package pl.training.patterns.behavioral.observer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MailboxTest {
+
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private final List<String> received = new CopyOnWriteArrayList<>();
+    private final Consumer<ServerEvent> gatedConsumer = event -> {
+        try {
+            gate.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        received.add(event.getPayload());
+    };
+
+    @Test
+    @DisplayName("Should deliver every event on mailbox thread")
+    void shouldDeliverEveryEventOnMailboxThread() {
+        try (var mailbox = new Mailbox(event -> received.add(event.getPayload()), 100, OverflowPolicy.BLOCK)) {
+            for (int i = 0; i < 50; i++) {
+                mailbox.accept(new ServerEvent("event " + i));
+            }
+
+            await(() -> mailbox.metrics().delivered() == 50);
+            assertEquals("event 49", received.get(49));
+            assertEquals(new MailboxMetrics(0, 50, 0, 0), mailbox.metrics());
+        }
+    }
+
+    @Test
+    @DisplayName("Should count failed deliveries separately")
+    void shouldCountFailedDeliveriesSeparately() {
+        try (var mailbox = new Mailbox(event -> {
+            throw new IllegalStateException("Consumer failed");
+        }, 10, OverflowPolicy.BLOCK)) {
+            mailbox.accept(new ServerEvent("first"));
+            mailbox.accept(new ServerEvent("second"));
+
+            await(() -> mailbox.metrics().failed() == 2);
+            assertEquals(0, mailbox.metrics().delivered());
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop newest events when full")
+    void shouldDropNewestEventsWhenFull() {
+        try (var mailbox = new Mailbox(gatedConsumer, 3, OverflowPolicy.DROP_NEWEST)) {
+            mailbox.accept(new ServerEvent("event 0"));
+            await(() -> mailbox.metrics().lag() == 0);
+            for (int i = 1; i < 20; i++) {
+                mailbox.accept(new ServerEvent("event " + i));
+            }
+            assertEquals(new MailboxMetrics(3, 0, 0, 16), mailbox.metrics());
+
+            gate.countDown();
+
+            await(() -> mailbox.metrics().lag() == 0);
+            assertEquals("event 0", received.get(0));
+            assertFalse(received.contains("event 19"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop oldest events when full")
+    void shouldDropOldestEventsWhenFull() {
+        try (var mailbox = new Mailbox(gatedConsumer, 3, OverflowPolicy.DROP_OLDEST)) {
+            for (int i = 0; i < 20; i++) {
+                mailbox.accept(new ServerEvent("event " + i));
+            }
+
+            gate.countDown();
+
+            await(() -> received.contains("event 19"));
+            assertTrue(received.size() <= 4);
+        }
+    }
+
+    @Test
+    @DisplayName("Should count queued events as dropped on close")
+    void shouldCountQueuedEventsAsDroppedOnClose() {
+        var mailbox = new Mailbox(gatedConsumer, 10, OverflowPolicy.BLOCK);
+        for (int i = 0; i < 5; i++) {
+            mailbox.accept(new ServerEvent("event " + i));
+        }
+        await(() -> mailbox.metrics().lag() == 4);
+
+        mailbox.close();
+        mailbox.accept(new ServerEvent("late"));
+
+        await(() -> mailbox.metrics().delivered() + mailbox.metrics().dropped() == 6);
+        assertEquals(0, mailbox.metrics().lag());
+        assertFalse(received.contains("late"));
+    }
+
+    @Test
+    @DisplayName("Should release producer blocked on full mailbox when closed")
+    void shouldReleaseProducerBlockedOnFullMailboxWhenClosed() throws Exception {
+        var mailbox = new Mailbox(gatedConsumer, 1, OverflowPolicy.BLOCK);
+        mailbox.accept(new ServerEvent("delivering"));
+        await(() -> mailbox.metrics().lag() == 0);
+        mailbox.accept(new ServerEvent("queued"));
+        var blocked = CompletableFuture.runAsync(() -> mailbox.accept(new ServerEvent("blocked")));
+        Thread.sleep(50);
+        assertFalse(blocked.isDone());
+
+        mailbox.close();
+
+        blocked.get(5, TimeUnit.SECONDS);
+        assertEquals(2, mailbox.metrics().dropped());
+    }
+
+    static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met in time");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+}
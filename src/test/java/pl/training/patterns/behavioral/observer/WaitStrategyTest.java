@@ -0,0 +1,63 @@
+package pl.training.patterns.behavioral.observer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitStrategyTest {
+
+    private final WaitStrategy waitStrategy = WaitStrategy.blocking();
+
+    @Test
+    @DisplayName("Should return without waiting when already available")
+    void shouldReturnWithoutWaitingWhenAlreadyAvailable() {
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> waitStrategy.await(() -> true));
+    }
+
+    @Test
+    @DisplayName("Should block until signalled availability")
+    void shouldBlockUntilSignalledAvailability() throws InterruptedException {
+        var available = new AtomicBoolean();
+        var returned = new CountDownLatch(1);
+        var waiter = new Thread(() -> {
+            waitStrategy.await(available::get);
+            returned.countDown();
+        });
+        waiter.start();
+
+        assertFalse(returned.await(100, TimeUnit.MILLISECONDS));
+        available.set(true);
+        waitStrategy.signalAll();
+
+        assertTrue(returned.await(5, TimeUnit.SECONDS));
+        waiter.join();
+    }
+
+    @Test
+    @DisplayName("Should ignore spurious signal while not available")
+    void shouldIgnoreSpuriousSignalWhileNotAvailable() throws InterruptedException {
+        var available = new AtomicBoolean();
+        var returned = new CountDownLatch(1);
+        var waiter = new Thread(() -> {
+            waitStrategy.await(available::get);
+            returned.countDown();
+        });
+        waiter.start();
+
+        Thread.sleep(50);
+        waitStrategy.signalAll();
+
+        assertFalse(returned.await(100, TimeUnit.MILLISECONDS));
+        available.set(true);
+        waitStrategy.signalAll();
+        assertTrue(returned.await(5, TimeUnit.SECONDS));
+        waiter.join();
+    }
+
+}
@@ -0,0 +1,81 @@
+package pl.training.patterns.behavioral.state;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "REGULAR, 0, 2.0",
+            "REGULAR, 2, 2.0",
+            "REGULAR, 3, 3.5",
+            "CHILDREN, 1, 1.5",
+            "CHILDREN, 5, 4.5",
+            "NEW_RELEASE, 0, 0.0",
+            "NEW_RELEASE, 4, 12.0"
+    })
+    @DisplayName("Should charge initial cost and every day after the free period")
+    void shouldChargeInitialCostAndEveryDayAfterTheFreePeriod(MovieType movieType, long periodInDays, double value) {
+        assertEquals(value, new Order(movieType).getTotalValue(periodInDays));
+    }
+
+    @Test
+    @DisplayName("Should not overflow for longest period")
+    void shouldNotOverflowForLongestPeriod() {
+        assertEquals(2 + (Long.MAX_VALUE - 2) * 1.5, new Order(MovieType.REGULAR).getTotalValue(Long.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Should charge every started day of duration")
+    void shouldChargeEveryStartedDayOfDuration() {
+        var order = new Order(MovieType.NEW_RELEASE);
+
+        assertEquals(0.0, order.getTotalValue(Duration.ZERO));
+        assertEquals(3.0, order.getTotalValue(Duration.ofMinutes(1)));
+        assertEquals(3.0, order.getTotalValue(Duration.ofDays(1)));
+        assertEquals(6.0, order.getTotalValue(Duration.ofDays(1).plusNanos(1)));
+    }
+
+    @Test
+    @DisplayName("Should charge days between dates")
+    void shouldChargeDaysBetweenDates() {
+        var order = new Order(MovieType.REGULAR);
+
+        assertEquals(2.0, order.getTotalValue(LocalDate.parse("2024-02-28"), LocalDate.parse("2024-02-28")));
+        assertEquals(3.5, order.getTotalValue(LocalDate.parse("2024-02-28"), LocalDate.parse("2024-03-02")));
+    }
+
+    @Test
+    @DisplayName("Should price periods in bulk like one by one")
+    void shouldPricePeriodsInBulkLikeOneByOne() {
+        var order = new Order(MovieType.CHILDREN);
+        long[] periods = {0, 1, 3, 4, 30, Long.MAX_VALUE};
+
+        var values = order.getTotalValues(periods);
+
+        for (int i = 0; i < periods.length; i++) {
+            assertEquals(order.getTotalValue(periods[i]), values[i]);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject negative period in every form")
+    void shouldRejectNegativePeriodInEveryForm() {
+        var order = new Order(MovieType.REGULAR);
+
+        assertThrows(IllegalArgumentException.class, () -> order.getTotalValue(-1));
+        assertThrows(IllegalArgumentException.class, () -> order.getTotalValue(Duration.ofSeconds(-1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> order.getTotalValue(LocalDate.parse("2024-03-02"), LocalDate.parse("2024-03-01")));
+        assertThrows(IllegalArgumentException.class, () -> order.getTotalValues(new long[]{1, -1}));
+    }
+
+}
@@ -0,0 +1,99 @@
+package pl.training.refactorings.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedWorkersTest {
+
+    private static final int PARTITIONS = 3;
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(PARTITIONS);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should process items of each partition in submission order")
+    void shouldProcessItemsOfEachPartitionInSubmissionOrder() {
+        var processed = new ConcurrentHashMap<Integer, List<Integer>>();
+        var closed = ConcurrentHashMap.<Integer>newKeySet();
+
+        try (var workers = new PartitionedWorkers<Integer>("Test", pool, PARTITIONS, 16, 2, partition -> {
+            var items = new ArrayList<Integer>();
+            processed.put(partition, items);
+            return new PartitionedWorkers.Worker<>() {
+                @Override
+                public void process(Integer item) {
+                    items.add(item);
+                }
+
+                @Override
+                public void close() {
+                    closed.add(partition);
+                }
+            };
+        })) {
+            for (int item = 0; item < 1_000; item++) {
+                workers.submit(item % PARTITIONS, item);
+            }
+            workers.finish();
+        }
+
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            var expected = new ArrayList<Integer>();
+            for (int item = partition; item < 1_000; item += PARTITIONS) {
+                expected.add(item);
+            }
+            assertEquals(expected, processed.get(partition));
+        }
+        assertEquals(3, closed.size());
+    }
+
+    @Test
+    @DisplayName("Should report failure of worker")
+    void shouldReportFailureOfWorker() {
+        try (var workers = new PartitionedWorkers<Integer>("Test", pool, PARTITIONS, 4, 1, partition -> item -> {
+            throw new IllegalArgumentException("worker failed");
+        })) {
+            var failure = assertThrows(IllegalStateException.class, () -> {
+                for (int item = 0; item < 10_000; item++) {
+                    workers.submit(0, item);
+                }
+                workers.finish();
+            });
+            assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop workers when closed without finishing")
+    void shouldStopWorkersWhenClosedWithoutFinishing() throws InterruptedException {
+        try (var workers = new PartitionedWorkers<Integer>("Test", pool, PARTITIONS, 4, 1, partition -> item -> {
+        })) {
+            workers.submit(1, 1);
+        }
+
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should reject non positive partitions count")
+    void shouldRejectNonPositivePartitionsCount() {
+        assertThrows(IllegalArgumentException.class, () -> new PartitionedWorkers<Integer>("Test", pool, 0, 4, 1, partition -> item -> {
+        }));
+    }
+
+}
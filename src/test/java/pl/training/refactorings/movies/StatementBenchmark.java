@@ -0,0 +1,100 @@
+package pl.training.refactorings.movies;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Enumeration;
+import java.util.Vector;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatementBenchmark {
+
+    @Param({"10", "1000", "5000"})
+    private int rentals;
+
+    private Customer customer;
+    private Vector<Rental> legacyRentals;
+
+    @Setup
+    public void setUp() {
+        customer = new Customer("Jan Kowalski");
+        legacyRentals = new Vector<>();
+        for (int i = 0; i < rentals; i++) {
+            var rental = new Rental(new Movie("movie " + i, i % 3), i % 30);
+            customer.addRental(rental);
+            legacyRentals.addElement(rental);
+        }
+    }
+
+    @Benchmark
+    public String legacy() {
+        return legacyStatement("Jan Kowalski", legacyRentals);
+    }
+
+    @Benchmark
+    public String engine() {
+        return customer.statement();
+    }
+
+    // the statement implementation the engine replaced, kept as the baseline
+    static String legacyStatement(String name, Vector<Rental> _rentals) {
+        double totalAmount = 0;
+        int frequentRenterPoints = 0;
+        Enumeration<Rental> rentals = _rentals.elements();
+        String result = "Rental Record for " + name + "\n";
+        while (rentals.hasMoreElements()) {
+            double thisAmount = 0;
+            Rental each = rentals.nextElement();
+
+            switch (each.getMovie().getPriceCode()) {
+                case Movie.REGULAR:
+                    thisAmount += 2;
+                    if (each.getDaysRented() > 2) {
+                        thisAmount += (each.getDaysRented() - 2) * 1.5;
+                    }
+                    break;
+                case Movie.NEW_RELEASE:
+                    thisAmount += each.getDaysRented() * 3;
+                    break;
+                case Movie.CHILDRENS:
+                    thisAmount += 1.5;
+                    if (each.getDaysRented() > 3) {
+                        thisAmount += (each.getDaysRented() - 3) * 1.5;
+                    }
+                    break;
+            }
+
+            frequentRenterPoints++;
+
+            if ((each.getMovie().getPriceCode() == Movie.NEW_RELEASE)
+                    && each.getDaysRented() > 1) {
+                frequentRenterPoints++;
+            }
+
+            result += "\t" + each.getMovie().getTitle() + "\t"
+                    + String.valueOf(thisAmount) + "\n";
+            totalAmount += thisAmount;
+        }
+        result += "Amount owed is " + String.valueOf(totalAmount)
+                + "\n";
+        result += "You earned " + String.valueOf(frequentRenterPoints)
+                + " frequent renter points";
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        var options = new OptionsBuilder()
+                .include(StatementBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,60 @@
+package pl.training.refactorings.movies;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+import java.util.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementEngineTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {Movie.REGULAR, Movie.NEW_RELEASE, Movie.CHILDRENS, 3, -1})
+    @DisplayName("Should match legacy statement for every price code")
+    void shouldMatchLegacyStatementForEveryPriceCode(int priceCode) {
+        var customer = new Customer("Jan Kowalski");
+        var rentals = new Vector<Rental>();
+        for (int days = -2; days < 10; days++) {
+            var rental = new Rental(new Movie("movie " + days, priceCode), days);
+            customer.addRental(rental);
+            rentals.addElement(rental);
+        }
+
+        assertEquals(StatementBenchmark.legacyStatement("Jan Kowalski", rentals), customer.statement());
+    }
+
+    @Test
+    @DisplayName("Should match legacy statement for mixed rentals")
+    void shouldMatchLegacyStatementForMixedRentals() {
+        var random = new Random(42);
+        var customer = new Customer("Zażółć Gęślą");
+        var rentals = new Vector<Rental>();
+        for (int i = 0; i < 1_000; i++) {
+            var rental = new Rental(new Movie("movie " + i, random.nextInt(4)), random.nextInt(40));
+            customer.addRental(rental);
+            rentals.addElement(rental);
+        }
+
+        assertEquals(StatementBenchmark.legacyStatement("Zażółć Gęślą", rentals), customer.statement());
+    }
+
+    @Test
+    @DisplayName("Should use price code current when statement is created")
+    void shouldUsePriceCodeCurrentWhenStatementIsCreated() {
+        var movie = new Movie("Matrix", Movie.REGULAR);
+        var rental = new Rental(movie, 5);
+        var customer = new Customer("Jan Kowalski");
+        customer.addRental(rental);
+        var rentals = new Vector<Rental>();
+        rentals.addElement(rental);
+
+        movie.setPriceCode(Movie.NEW_RELEASE);
+
+        assertEquals(StatementBenchmark.legacyStatement("Jan Kowalski", rentals), customer.statement());
+    }
+
+}
@@ -0,0 +1,100 @@
+package pl.training.refactorings.newmovies;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkStatementWriterTest {
+
+    private static final int PARTITIONS = 3;
+
+    private final ForkJoinPool pool = new ForkJoinPool(PARTITIONS);
+    private final Statement statement = new Statement();
+    private final BulkStatementWriter writer = new BulkStatementWriter(statement, pool, PARTITIONS);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should write every statement to its partition file")
+    void shouldWriteEveryStatementToItsPartitionFile(@TempDir Path directory) throws Exception {
+        var customers = IntStream.range(0, 1_000)
+            .mapToObj(i -> StatementTest.customerWithRentals(i % 20))
+            .toList();
+
+        var files = writer.write(customers.stream(), directory);
+
+        assertEquals(PARTITIONS, files.size());
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            var expected = new StringBuilder();
+            for (int customer = partition; customer < customers.size(); customer += PARTITIONS) {
+                expected.append(statement.create(customers.get(customer))).append("\n\n");
+            }
+            assertEquals(expected.toString(), Files.readString(files.get(partition)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should write more partitions than pool threads")
+    void shouldWriteMorePartitionsThanPoolThreads(@TempDir Path directory) throws Exception {
+        var customer = StatementTest.customerWithRentals(3);
+        var singleThread = new ForkJoinPool(1);
+        try {
+            var files = new BulkStatementWriter(statement, singleThread, 4).write(Stream.generate(() -> customer).limit(2_000), directory);
+
+            for (Path file : files) {
+                assertEquals((statement.create(customer) + "\n\n").repeat(500), Files.readString(file));
+            }
+        } finally {
+            singleThread.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should create empty partition files for no customers")
+    void shouldCreateEmptyPartitionFilesForNoCustomers(@TempDir Path directory) throws Exception {
+        var files = writer.write(List.<Customer>of(), directory);
+
+        for (Path file : files) {
+            assertEquals(0, Files.size(file));
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop workers when reading customers fails")
+    void shouldStopWorkersWhenReadingCustomersFails(@TempDir Path directory) {
+        Iterator<Customer> failing = new Iterator<>() {
+            private int read;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Customer next() {
+                if (++read > 10) {
+                    throw new IllegalStateException("source failed");
+                }
+                return StatementTest.customerWithRentals(1);
+            }
+        };
+
+        assertThrows(IllegalStateException.class, () -> writer.write(failing, directory));
+        assertEquals(PARTITIONS, writer.write(new ArrayList<Customer>(), directory).size());
+    }
+}
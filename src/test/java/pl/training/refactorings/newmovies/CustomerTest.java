@@ -0,0 +1,120 @@
+package pl.training.refactorings.newmovies;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pl.training.refactorings.newmovies.rental.Rental;
+import pl.training.refactorings.newmovies.rental.Tariff;
+import pl.training.refactorings.newmovies.rental.TariffRegistry;
+import pl.training.refactorings.newmovies.rental.TariffSchedule;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerTest {
+
+    @Test
+    @DisplayName("Should summarize rentals added one by one")
+    void shouldSummarizeRentalsAddedOneByOne() {
+        var customer = new Customer("Jan Kowalski");
+        var rentals = rentals();
+        rentals.forEach(customer::addRental);
+
+        assertEquals(RentalSummary.of(rentals), customer.getRentalSummary());
+    }
+
+    @Test
+    @DisplayName("Should summarize rentals added in bulk")
+    void shouldSummarizeRentalsAddedInBulk() {
+        var customer = new Customer("Jan Kowalski");
+        var rentals = rentals();
+        customer.addRentals(rentals);
+
+        assertEquals(RentalSummary.of(rentals), customer.getRentalSummary());
+        assertEquals(RentalSummary.of(rentals).totalAmount(), customer.getTotalAmount());
+        assertEquals(RentalSummary.of(rentals).frequentRenterPoints(), customer.getFrequentRenterPoints());
+    }
+
+    @Test
+    @DisplayName("Should include rentals added after summary was read")
+    void shouldIncludeRentalsAddedAfterSummaryWasRead() {
+        var customer = new Customer("Jan Kowalski");
+        customer.addRental(new Rental(new Movie("Matrix", MovieType.REGULAR), 3));
+        customer.getRentalSummary();
+
+        customer.addRental(new Rental(new Movie("Shrek", MovieType.CHILDREN), 4));
+
+        assertEquals(new RentalSummary(6.5, 2), customer.getRentalSummary());
+    }
+
+    @Test
+    @DisplayName("Should keep running totals equal to full repricing")
+    void shouldKeepRunningTotalsEqualToFullRepricing() {
+        var customer = new Customer("Jan Kowalski");
+        var rentals = rentals();
+        customer.getRentalSummary();
+
+        for (Rental rental : rentals) {
+            customer.addRental(rental);
+            customer.getRentalSummary();
+        }
+
+        assertEquals(RentalSummary.of(rentals), customer.getRentalSummary());
+    }
+
+    @Test
+    @DisplayName("Should reprice all rentals when rental is added after tariff change")
+    void shouldRepriceAllRentalsWhenRentalIsAddedAfterTariffChange() {
+        var customer = new Customer("Jan Kowalski");
+        customer.addRental(new Rental(new Movie("Matrix", MovieType.REGULAR), 1));
+        assertEquals(2.0, customer.getTotalAmount());
+
+        var shared = TariffRegistry.shared();
+        var previous = shared.current();
+        try {
+            shared.replace(TariffSchedule.defaults().withVersion(LocalDate.MIN.plusDays(1), Map.of(
+                    MovieType.REGULAR, new Tariff(7, 1, 0, Tariff.NO_BONUS_POINTS),
+                    MovieType.NEW_RELEASE, new Tariff(7, 1, 0, 1),
+                    MovieType.CHILDREN, new Tariff(7, 1, 0, Tariff.NO_BONUS_POINTS))));
+            customer.addRental(new Rental(new Movie("Shrek", MovieType.CHILDREN), 1));
+
+            assertEquals(16.0, customer.getTotalAmount());
+        } finally {
+            shared.replace(previous);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reprice summary after tariff change")
+    void shouldRepriceSummaryAfterTariffChange() {
+        var customer = new Customer("Jan Kowalski");
+        customer.addRental(new Rental(new Movie("Matrix", MovieType.REGULAR), 1));
+        assertEquals(2.0, customer.getTotalAmount());
+
+        var shared = TariffRegistry.shared();
+        var previous = shared.current();
+        try {
+            shared.replace(TariffSchedule.defaults().withVersion(LocalDate.MIN.plusDays(1), Map.of(
+                    MovieType.REGULAR, new Tariff(7, 1, 0, Tariff.NO_BONUS_POINTS),
+                    MovieType.NEW_RELEASE, new Tariff(7, 1, 0, 1),
+                    MovieType.CHILDREN, new Tariff(7, 1, 0, Tariff.NO_BONUS_POINTS))));
+
+            assertEquals(8.0, customer.getTotalAmount());
+        } finally {
+            shared.replace(previous);
+        }
+        assertEquals(2.0, customer.getTotalAmount());
+    }
+
+    private static List<Rental> rentals() {
+        var rentals = new ArrayList<Rental>();
+        for (int i = 0; i < 1_000; i++) {
+            rentals.add(new Rental(new Movie("movie " + i, MovieType.values()[i % 3]), i % 77));
+        }
+        return rentals;
+    }
+
+}
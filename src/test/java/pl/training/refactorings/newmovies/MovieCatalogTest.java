@@ -0,0 +1,52 @@
+package pl.training.refactorings.newmovies;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovieCatalogTest {
+
+    private final MovieCatalog catalog = new MovieCatalog();
+
+    @Test
+    @DisplayName("Should return shared instance for equal movies")
+    void shouldReturnSharedInstanceForEqualMovies() {
+        var movie = catalog.intern(new String("Matrix"), MovieType.REGULAR);
+
+        assertSame(movie, catalog.intern(new String("Matrix"), MovieType.REGULAR));
+        assertEquals(1, catalog.size());
+    }
+
+    @Test
+    @DisplayName("Should pool titles across movie types")
+    void shouldPoolTitlesAcrossMovieTypes() {
+        var regular = catalog.intern(new String("Matrix"), MovieType.REGULAR);
+        var newRelease = catalog.intern(new String("Matrix"), MovieType.NEW_RELEASE);
+
+        assertNotSame(regular, newRelease);
+        assertSame(regular.title(), newRelease.title());
+        assertEquals(2, catalog.size());
+    }
+
+    @Test
+    @DisplayName("Should return existing instance when movie is registered again")
+    void shouldReturnExistingInstanceWhenMovieIsRegisteredAgain() {
+        var movie = catalog.register(1, "Matrix", MovieType.REGULAR);
+
+        assertSame(movie, catalog.register(1, new String("Matrix"), MovieType.REGULAR));
+        assertSame(movie, catalog.intern("Matrix", MovieType.REGULAR));
+        assertSame(movie, catalog.findById(1).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should reject conflicting registration of id")
+    void shouldRejectConflictingRegistrationOfId() {
+        var movie = catalog.register(1, "Matrix", MovieType.REGULAR);
+
+        assertThrows(IllegalArgumentException.class, () -> catalog.register(1, "Shrek", MovieType.REGULAR));
+        assertThrows(IllegalArgumentException.class, () -> catalog.register(1, "Matrix", MovieType.CHILDREN));
+        assertSame(movie, catalog.findById(1).orElseThrow());
+    }
+
+}
@@ -0,0 +1,65 @@
+package pl.training.refactorings.newmovies;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pl.training.refactorings.newmovies.rental.Rental;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementTest {
+
+    private final Statement statement = new Statement();
+
+    @Test
+    @DisplayName("Should create statement with prices and totals")
+    void shouldCreateStatementWithPricesAndTotals() {
+        var customer = new Customer("John Doe");
+        customer.addRental(new Rental(new Movie("Matrix", MovieType.REGULAR), 3));
+        customer.addRental(new Rental(new Movie("Dune", MovieType.NEW_RELEASE), 2));
+
+        assertEquals("""
+            Rental Record for John Doe
+            \tMatrix\t3.5
+            \tDune\t6.0
+            Amount owed is 9.5
+            You earned 3 frequent renter points""", statement.create(customer));
+    }
+
+    @Test
+    @DisplayName("Should write same text to appendable as created statement")
+    void shouldWriteSameTextToAppendableAsCreatedStatement() throws Exception {
+        var customer = customerWithRentals(50);
+        var output = new StringWriter();
+
+        statement.writeTo(customer, output);
+
+        assertEquals(statement.create(customer), output.toString());
+    }
+
+    @Test
+    @DisplayName("Should write same bytes to channel writer as created statement")
+    void shouldWriteSameBytesToChannelWriterAsCreatedStatement() throws Exception {
+        var customer = customerWithRentals(2_000);
+        var output = new ByteArrayOutputStream();
+
+        try (var writer = Channels.newWriter(Channels.newChannel(output), StandardCharsets.UTF_8)) {
+            statement.writeTo(customer, writer);
+        }
+
+        assertEquals(statement.create(customer), output.toString(StandardCharsets.UTF_8));
+    }
+
+    static Customer customerWithRentals(int rentals) {
+        var customer = new Customer("Zażółć Gęślą");
+        var types = MovieType.values();
+        for (int i = 0; i < rentals; i++) {
+            customer.addRental(new Rental(new Movie("Film ąę " + i, types[i % types.length]), i % 9));
+        }
+        return customer;
+    }
+}
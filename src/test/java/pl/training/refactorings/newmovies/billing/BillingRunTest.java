@@ -0,0 +1,161 @@
+package pl.training.refactorings.newmovies.billing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.training.refactorings.newmovies.Customer;
+import pl.training.refactorings.newmovies.Movie;
+import pl.training.refactorings.newmovies.MovieType;
+import pl.training.refactorings.newmovies.RentalSummary;
+import pl.training.refactorings.newmovies.rental.Rental;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BillingRunTest {
+
+    private static final int CUSTOMERS = 100;
+    private static final int PARTITION_SIZE = 7;
+
+    private final ForkJoinPool pool = new ForkJoinPool(3);
+    private final List<Customer> customers = customers();
+
+    @TempDir
+    private Path directory;
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should bill every customer")
+    void shouldBillEveryCustomer() throws IOException {
+        var totals = new BillingRun(pool, PARTITION_SIZE, directory).run("2024-06", customers.iterator());
+
+        assertEquals(expectedTotals(), totals);
+    }
+
+    @Test
+    @DisplayName("Should bill customers read from file")
+    void shouldBillCustomersReadFromFile() throws IOException {
+        var file = directory.resolve("rentals.csv");
+        var lines = new StringBuilder();
+        for (Customer customer : customers) {
+            for (Rental rental : customer.getRentals()) {
+                lines.append(customer.getName()).append(',').append(rental.movie().title()).append(',')
+                        .append(rental.movie().type()).append(',').append(rental.daysRented()).append('\n');
+            }
+        }
+        Files.writeString(file, lines);
+
+        try (var reader = new CustomerReader(file)) {
+            assertEquals(expectedTotals(), new BillingRun(pool, PARTITION_SIZE, directory).run("2024-06", reader));
+        }
+    }
+
+    @Test
+    @DisplayName("Should delete checkpoint after successful run")
+    void shouldDeleteCheckpointAfterSuccessfulRun() throws IOException {
+        new BillingRun(pool, PARTITION_SIZE, directory).run("2024-06", customers.iterator());
+
+        assertFalse(Files.exists(directory.resolve("2024-06.checkpoint")));
+    }
+
+    @Test
+    @DisplayName("Should resume failed run without billing completed partitions again")
+    void shouldResumeFailedRunWithoutBillingCompletedPartitionsAgain() throws IOException {
+        var billingRun = new BillingRun(pool, PARTITION_SIZE, directory);
+        assertThrows(IllegalStateException.class, () -> billingRun.run("2024-06", failingAfter(60)));
+        var checkpoint = directory.resolve("2024-06.checkpoint");
+        var checkpointed = Files.readAllLines(checkpoint).size();
+        assertTrue(checkpointed > 0);
+
+        var totals = billingRun.run("2024-06", customers.iterator());
+
+        assertEquals(expectedTotals().customers(), totals.customers());
+        assertEquals(expectedTotals().totalAmount(), totals.totalAmount(), 1e-9);
+        assertEquals(expectedTotals().frequentRenterPoints(), totals.frequentRenterPoints());
+    }
+
+    @Test
+    @DisplayName("Should rebill partition with torn checkpoint line")
+    void shouldRebillPartitionWithTornCheckpointLine() throws IOException {
+        Files.writeString(directory.resolve("2024-06.checkpoint"), "0,7,1000.0,7\n1,7,10");
+
+        var totals = new BillingRun(pool, PARTITION_SIZE, directory).run("2024-06", customers.iterator());
+
+        var firstPartition = BillingTotals.EMPTY;
+        for (Customer customer : customers.subList(0, PARTITION_SIZE)) {
+            firstPartition = firstPartition.plus(customer.getRentalSummary());
+        }
+        assertEquals(expectedTotals().totalAmount() - firstPartition.totalAmount() + 1000.0, totals.totalAmount(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should not reuse checkpoint of another run")
+    void shouldNotReuseCheckpointOfAnotherRun() throws IOException {
+        Files.writeString(directory.resolve("2024-05.checkpoint"), "0,7,1000.0,7\n");
+
+        var totals = new BillingRun(pool, PARTITION_SIZE, directory).run("2024-06", customers.iterator());
+
+        assertEquals(expectedTotals(), totals);
+        assertTrue(Files.exists(directory.resolve("2024-05.checkpoint")));
+    }
+
+    private BillingTotals expectedTotals() {
+        var totals = BillingTotals.EMPTY;
+        var partition = BillingTotals.EMPTY;
+        for (int i = 0; i < customers.size(); i++) {
+            partition = partition.plus(RentalSummary.of(customers.get(i).getRentals()));
+            if ((i + 1) % PARTITION_SIZE == 0 || i == customers.size() - 1) {
+                totals = totals.plus(partition);
+                partition = BillingTotals.EMPTY;
+            }
+        }
+        return totals;
+    }
+
+    private Iterator<Customer> failingAfter(int count) {
+        var source = customers.iterator();
+        return new Iterator<>() {
+
+            private int read;
+
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public Customer next() {
+                if (++read > count) {
+                    throw new IllegalStateException("Source unavailable");
+                }
+                return source.next();
+            }
+
+        };
+    }
+
+    private static List<Customer> customers() {
+        var customers = new ArrayList<Customer>();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            var customer = new Customer("customer " + i);
+            for (MovieType type : MovieType.values()) {
+                customer.addRental(new Rental(new Movie("movie " + type, type), i % 9));
+            }
+            customers.add(customer);
+        }
+        return customers;
+    }
+
+}
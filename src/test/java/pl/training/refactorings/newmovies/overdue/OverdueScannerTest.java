@@ -0,0 +1,153 @@
+package pl.training.refactorings.newmovies.overdue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pl.training.refactorings.newmovies.Movie;
+import pl.training.refactorings.newmovies.MovieType;
+import pl.training.refactorings.newmovies.rental.Rental;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OverdueScannerTest {
+
+    private static final LocalDate TODAY = LocalDate.parse("2024-01-01");
+    private static final Movie MOVIE = new Movie("Matrix", MovieType.REGULAR);
+
+    @Test
+    @DisplayName("Should report rental overdue on day after due date")
+    void shouldReportRentalOverdueOnDayAfterDueDate() {
+        var scanner = new OverdueScanner(TODAY);
+        var rental = new OpenRental(1, new Rental(MOVIE, 3), TODAY.plusDays(2));
+        scanner.open(rental);
+
+        assertEquals(List.of(), scanner.tick(TODAY.plusDays(2)));
+        assertEquals(List.of(rental), scanner.tick(TODAY.plusDays(3)));
+        assertEquals(List.of(), scanner.tick(TODAY.plusDays(4)));
+    }
+
+    @Test
+    @DisplayName("Should skip rental closed before it became overdue")
+    void shouldSkipRentalClosedBeforeItBecameOverdue() {
+        var scanner = new OverdueScanner(TODAY);
+        scanner.open(new OpenRental(1, new Rental(MOVIE, 3), TODAY.plusDays(2)));
+
+        scanner.close(1);
+
+        assertEquals(List.of(), scanner.tick(TODAY.plusDays(100)));
+        assertEquals(List.of(), scanner.lateFees());
+    }
+
+    @Test
+    @DisplayName("Should only report reopened rental on its new due date")
+    void shouldOnlyReportReopenedRentalOnItsNewDueDate() {
+        var scanner = new OverdueScanner(TODAY);
+        scanner.open(new OpenRental(1, new Rental(MOVIE, 3), TODAY.plusDays(2)));
+        scanner.close(1);
+        var reopened = new OpenRental(1, new Rental(MOVIE, 3), TODAY.plusDays(200));
+        scanner.open(reopened);
+
+        assertEquals(List.of(), scanner.tick(TODAY.plusDays(100)));
+        assertEquals(List.of(reopened), scanner.tick(TODAY.plusDays(201)));
+    }
+
+    @Test
+    @DisplayName("Should charge extra days as late fee")
+    void shouldChargeExtraDaysAsLateFee() {
+        var scanner = new OverdueScanner(TODAY);
+        var rental = new OpenRental(1, new Rental(MOVIE, 3), TODAY.plusDays(2));
+        scanner.open(rental);
+
+        scanner.tick(TODAY.plusDays(5));
+
+        assertEquals(List.of(new LateFee(rental, 3, 4.5)), scanner.lateFees());
+    }
+
+    @Test
+    @DisplayName("Should tick itself until closed")
+    void shouldTickItselfUntilClosed() throws InterruptedException {
+        var clock = new MutableClock(TODAY.atStartOfDay(ZoneOffset.UTC).toInstant());
+        var reported = new CopyOnWriteArrayList<OpenRental>();
+        var first = new OpenRental(1, new Rental(MOVIE, 3), TODAY);
+        var second = new OpenRental(2, new Rental(MOVIE, 3), TODAY.plusDays(1));
+        try (var scanner = new OverdueScanner(clock, Duration.ofMillis(5), reported::addAll)) {
+            scanner.open(first);
+            scanner.open(second);
+
+            clock.advance(Duration.ofDays(1));
+            awaitReported(reported, 1);
+            assertEquals(List.of(first), reported);
+
+            scanner.close();
+            clock.advance(Duration.ofDays(1));
+            TimeUnit.MILLISECONDS.sleep(50);
+            assertEquals(List.of(first), reported);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep ticking after listener failure")
+    void shouldKeepTickingAfterListenerFailure() throws InterruptedException {
+        var clock = new MutableClock(TODAY.atStartOfDay(ZoneOffset.UTC).toInstant());
+        var reported = new CopyOnWriteArrayList<OpenRental>();
+        try (var scanner = new OverdueScanner(clock, Duration.ofMillis(5), rentals -> {
+            reported.addAll(rentals);
+            throw new IllegalStateException("Listener failed");
+        })) {
+            scanner.open(new OpenRental(1, new Rental(MOVIE, 3), TODAY));
+            scanner.open(new OpenRental(2, new Rental(MOVIE, 3), TODAY.plusDays(1)));
+
+            clock.advance(Duration.ofDays(1));
+            awaitReported(reported, 1);
+            clock.advance(Duration.ofDays(1));
+            awaitReported(reported, 2);
+        }
+    }
+
+    private static void awaitReported(List<OpenRental> reported, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (reported.size() < count && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        assertEquals(count, reported.size());
+    }
+
+    private static class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+    }
+
+}
@@ -0,0 +1,108 @@
+package pl.training.refactorings.newmovies.overdue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final long START = 1_000;
+
+    @Test
+    @DisplayName("Should return items due on reached day")
+    void shouldReturnItemsDueOnReachedDay() {
+        var wheel = new TimingWheel<String>(START);
+        wheel.schedule(START + 1, "tomorrow");
+        wheel.schedule(START + 2, "later");
+
+        assertEquals(List.of("tomorrow"), wheel.advanceTo(START + 1));
+        assertEquals(List.of("later"), wheel.advanceTo(START + 2));
+        assertEquals(List.of(), wheel.advanceTo(START + 3));
+    }
+
+    @Test
+    @DisplayName("Should return item scheduled for past day on next advance")
+    void shouldReturnItemScheduledForPastDayOnNextAdvance() {
+        var wheel = new TimingWheel<String>(START);
+        wheel.schedule(START - 5, "overdue");
+
+        assertEquals(List.of("overdue"), wheel.advanceTo(START));
+    }
+
+    @Test
+    @DisplayName("Should wrap around first level slots")
+    void shouldWrapAroundFirstLevelSlots() {
+        var wheel = new TimingWheel<String>(60);
+        wheel.schedule(63, "before wrap");
+        wheel.schedule(64, "on wrap");
+        wheel.schedule(66, "after wrap");
+
+        assertEquals(List.of("before wrap"), wheel.advanceTo(63));
+        assertEquals(List.of("on wrap"), wheel.advanceTo(64));
+        assertEquals(List.of(), wheel.advanceTo(65));
+        assertEquals(List.of("after wrap"), wheel.advanceTo(66));
+    }
+
+    @Test
+    @DisplayName("Should cascade items due many rounds ahead")
+    void shouldCascadeItemsDueManyRoundsAhead() {
+        var wheel = new TimingWheel<String>(START);
+        wheel.schedule(START + 64, "one round");
+        wheel.schedule(START + 64 * 64 + 3, "one second level round");
+        wheel.schedule(START + 64 * 64 * 64 + 7, "one third level round");
+
+        assertEquals(List.of(), wheel.advanceTo(START + 63));
+        assertEquals(List.of("one round"), wheel.advanceTo(START + 64));
+        assertEquals(List.of(), wheel.advanceTo(START + 64 * 64 + 2));
+        assertEquals(List.of("one second level round"), wheel.advanceTo(START + 64 * 64 + 3));
+        assertEquals(List.of(), wheel.advanceTo(START + 64 * 64 * 64 + 6));
+        assertEquals(List.of("one third level round"), wheel.advanceTo(START + 64 * 64 * 64 + 7));
+    }
+
+    @Test
+    @DisplayName("Should reject day beyond wheel range")
+    void shouldRejectDayBeyondWheelRange() {
+        var wheel = new TimingWheel<String>(START);
+
+        assertThrows(IllegalArgumentException.class, () -> wheel.schedule(START + (1L << 24), "too far"));
+    }
+
+    @Test
+    @DisplayName("Should return every item exactly once on its day")
+    void shouldReturnEveryItemExactlyOnceOnItsDay() {
+        record Entry(long id, long day) {
+        }
+        var random = new Random(1);
+        var wheel = new TimingWheel<Entry>(START);
+        var pending = new HashSet<Entry>();
+        for (int id = 0; id < 20_000; id++) {
+            var entry = new Entry(id, START + random.nextInt(300_000));
+            wheel.schedule(entry.day(), entry);
+            pending.add(entry);
+        }
+
+        long day = START;
+        while (day < START + 400_000) {
+            day += 1 + random.nextInt(50);
+            var due = wheel.advanceTo(day);
+
+            var expected = new HashSet<Entry>();
+            for (Entry entry : pending) {
+                if (entry.day() <= day) {
+                    expected.add(entry);
+                }
+            }
+            assertEquals(expected.size(), due.size());
+            assertEquals(expected, Set.copyOf(due));
+            pending.removeAll(expected);
+        }
+        assertTrue(pending.isEmpty());
+    }
+
+}
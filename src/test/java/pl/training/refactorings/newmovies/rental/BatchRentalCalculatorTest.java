@@ -0,0 +1,111 @@
+package pl.training.refactorings.newmovies.rental;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pl.training.refactorings.newmovies.MovieType;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchRentalCalculatorTest {
+
+    private static final RentalCalculator[] CALCULATORS = {
+        new RegularRentalCalculator(), new NewReleaseRentalCalculator(), new ChildrenRentalCalculator()
+    };
+
+    private final BatchRentalCalculator calculator = new BatchRentalCalculator();
+
+    @ParameterizedTest
+    @ValueSource(ints = {Integer.MIN_VALUE, Integer.MIN_VALUE + 1, -1_000_000, -3, -1, 0, 1, 2, 3, 4, 5, 59, 60, 61,
+        1_000_000, Integer.MAX_VALUE - 2, Integer.MAX_VALUE - 1, Integer.MAX_VALUE})
+    @DisplayName("Should match per type calculators for edge case rental periods")
+    void shouldMatchPerTypeCalculatorsForEdgeCaseRentalPeriods(int daysRented) {
+        for (MovieType type : MovieType.values()) {
+            assertMatchesPerTypeCalculators(new int[]{type.ordinal()}, new int[]{daysRented});
+        }
+    }
+
+    @Test
+    @DisplayName("Should match per type calculators for random rentals")
+    void shouldMatchPerTypeCalculatorsForRandomRentals() {
+        var random = new Random(31);
+        int rentals = 100_000;
+        var typeOrdinals = new int[rentals];
+        var daysRented = new int[rentals];
+        for (int i = 0; i < rentals; i++) {
+            typeOrdinals[i] = random.nextInt(CALCULATORS.length);
+            daysRented[i] = i % 2 == 0 ? random.nextInt(100) - 10 : random.nextInt();
+        }
+
+        assertMatchesPerTypeCalculators(typeOrdinals, daysRented);
+    }
+
+    @Test
+    @DisplayName("Should map movie type ordinals to legacy price codes")
+    void shouldMapMovieTypeOrdinalsToLegacyPriceCodes() {
+        assertEquals(0, MovieType.REGULAR.ordinal());
+        assertEquals(1, MovieType.NEW_RELEASE.ordinal());
+        assertEquals(2, MovieType.CHILDREN.ordinal());
+    }
+
+    @Test
+    @DisplayName("Should reject columns of different length")
+    void shouldRejectColumnsOfDifferentLength() {
+        assertThrows(IllegalArgumentException.class, () -> calculator.calculatePrices(new int[2], new int[1], new double[2]));
+        assertThrows(IllegalArgumentException.class, () -> calculator.calculateFrequentRenterPoints(new int[2], new int[2], new int[1]));
+    }
+
+    @Test
+    @DisplayName("Should price with tariffs of given snapshot")
+    void shouldPriceWithTariffsOfGivenSnapshot() {
+        var tariffs = Map.of(
+            MovieType.REGULAR, new Tariff(5, 1, 0, Tariff.NO_BONUS_POINTS),
+            MovieType.NEW_RELEASE, new Tariff(4, 2, 1, 3),
+            MovieType.CHILDREN, new Tariff(3, 0.5, 2, Tariff.NO_BONUS_POINTS));
+        var registry = new TariffRegistry(TariffSchedule.defaults(), Clock.fixed(Instant.parse("2024-06-30T12:00:00Z"), ZoneOffset.UTC));
+        registry.publish(LocalDate.parse("2024-06-01"), tariffs);
+        var batchCalculator = new BatchRentalCalculator(registry.snapshot());
+        int[] daysRented = {-1, 0, 1, 2, 3, 4, 10, 1_000, Integer.MAX_VALUE};
+
+        for (MovieType type : MovieType.values()) {
+            var typeOrdinals = new int[daysRented.length];
+            Arrays.fill(typeOrdinals, type.ordinal());
+            var prices = new double[daysRented.length];
+            var points = new int[daysRented.length];
+            batchCalculator.calculatePrices(typeOrdinals, daysRented, prices);
+            batchCalculator.calculateFrequentRenterPoints(typeOrdinals, daysRented, points);
+
+            var expected = tariffs.get(type);
+            for (int i = 0; i < daysRented.length; i++) {
+                assertEquals(expected.calculatePrice(daysRented[i]), prices[i]);
+                assertEquals(expected.calculateFrequentRenterPoints(daysRented[i]), points[i]);
+            }
+        }
+    }
+
+    private void assertMatchesPerTypeCalculators(int[] typeOrdinals, int[] daysRented) {
+        var prices = new double[typeOrdinals.length];
+        var points = new int[typeOrdinals.length];
+        calculator.calculatePrices(typeOrdinals, daysRented, prices);
+        calculator.calculateFrequentRenterPoints(typeOrdinals, daysRented, points);
+
+        for (int i = 0; i < typeOrdinals.length; i++) {
+            var type = MovieType.values()[typeOrdinals[i]];
+            var expected = CALCULATORS[typeOrdinals[i]];
+            int days = daysRented[i];
+            assertEquals(Double.doubleToLongBits(expected.calculatePrice(days)), Double.doubleToLongBits(prices[i]),
+                () -> type + " price for " + days + " days");
+            assertEquals(expected.calculateFrequentRenterPoints(days), points[i],
+                () -> type + " points for " + days + " days");
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package pl.training.refactorings.newmovies.rental;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceTableBenchmark {
+
+    private static final int RENTALS = 10_000;
+    private static final int MAX_DAYS = 60;
+
+    @Param({"REGULAR", "NEW_RELEASE", "CHILDREN"})
+    private String type;
+
+    private RentalCalculator formula;
+    private RentalCalculator table;
+    private int[] daysRented;
+
+    @Setup
+    public void setUp() {
+        formula = switch (type) {
+            case "REGULAR" -> new RegularRentalCalculator();
+            case "NEW_RELEASE" -> new NewReleaseRentalCalculator();
+            default -> new ChildrenRentalCalculator();
+        };
+        table = new PriceTableRentalCalculator(formula);
+        var random = new Random(42);
+        daysRented = new int[RENTALS];
+        for (int i = 0; i < RENTALS; i++) {
+            daysRented[i] = random.nextInt(MAX_DAYS);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RENTALS)
+    public void formula(Blackhole blackhole) {
+        price(formula, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RENTALS)
+    public void table(Blackhole blackhole) {
+        price(table, blackhole);
+    }
+
+    private void price(RentalCalculator calculator, Blackhole blackhole) {
+        for (int days : daysRented) {
+            blackhole.consume(calculator.calculatePrice(days));
+            blackhole.consume(calculator.calculateFrequentRenterPoints(days));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        var options = new OptionsBuilder()
+                .include(PriceTableBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,93 @@
+package pl.training.refactorings.newmovies.rental;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceTableRentalCalculatorTest {
+
+    private static final int HORIZON = 30;
+
+    private final CountingCalculator calculator = new CountingCalculator(new NewReleaseRentalCalculator());
+    private final PriceTableRentalCalculator table = new PriceTableRentalCalculator(calculator, HORIZON);
+
+    @Test
+    @DisplayName("Should match wrapped calculators up to horizon")
+    void shouldMatchWrappedCalculatorsUpToHorizon() {
+        for (RentalCalculator wrapped : List.of(new RegularRentalCalculator(), new NewReleaseRentalCalculator(), new ChildrenRentalCalculator())) {
+            var priceTable = new PriceTableRentalCalculator(wrapped, HORIZON);
+            for (int days = 0; days <= HORIZON; days++) {
+                assertEquals(wrapped.calculatePrice(days), priceTable.calculatePrice(days));
+                assertEquals(wrapped.calculateFrequentRenterPoints(days), priceTable.calculateFrequentRenterPoints(days));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer from table up to and including horizon")
+    void shouldAnswerFromTableUpToAndIncludingHorizon() {
+        calculator.calls.clear();
+
+        table.calculatePrice(0);
+        table.calculatePrice(HORIZON);
+        table.calculateFrequentRenterPoints(HORIZON);
+
+        assertTrue(calculator.calls.isEmpty());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-5, -1, HORIZON + 1, 365})
+    @DisplayName("Should fall back to wrapped calculator outside table")
+    void shouldFallBackToWrappedCalculatorOutsideTable(int daysRented) {
+        calculator.calls.clear();
+
+        assertEquals(calculator.wrapped.calculatePrice(daysRented), table.calculatePrice(daysRented));
+        assertEquals(calculator.wrapped.calculateFrequentRenterPoints(daysRented), table.calculateFrequentRenterPoints(daysRented));
+        assertEquals(List.of(daysRented, daysRented), calculator.calls);
+    }
+
+    @Test
+    @DisplayName("Should build table with only zero days for zero horizon")
+    void shouldBuildTableWithOnlyZeroDaysForZeroHorizon() {
+        var zeroHorizon = new PriceTableRentalCalculator(new RegularRentalCalculator(), 0);
+
+        assertEquals(2.0, zeroHorizon.calculatePrice(0));
+        assertEquals(3.5, zeroHorizon.calculatePrice(3));
+    }
+
+    @Test
+    @DisplayName("Should reject negative horizon")
+    void shouldRejectNegativeHorizon() {
+        assertThrows(IllegalArgumentException.class, () -> new PriceTableRentalCalculator(new RegularRentalCalculator(), -1));
+    }
+
+    private static class CountingCalculator implements RentalCalculator {
+
+        private final RentalCalculator wrapped;
+        private final List<Integer> calls = new ArrayList<>();
+
+        CountingCalculator(RentalCalculator wrapped) {
+            this.wrapped = wrapped;
+        }
+
+        @Override
+        public double calculatePrice(int daysRented) {
+            calls.add(daysRented);
+            return wrapped.calculatePrice(daysRented);
+        }
+
+        @Override
+        public int calculateFrequentRenterPoints(int daysRented) {
+            calls.add(daysRented);
+            return wrapped.calculateFrequentRenterPoints(daysRented);
+        }
+
+    }
+
+}
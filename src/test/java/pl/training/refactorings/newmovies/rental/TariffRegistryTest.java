@@ -0,0 +1,175 @@
+package pl.training.refactorings.newmovies.rental;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.training.refactorings.newmovies.Movie;
+import pl.training.refactorings.newmovies.MovieType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TariffRegistryTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-06-30T12:00:00Z"));
+
+    @Test
+    @DisplayName("Should price with defaults until tariffs are loaded")
+    void shouldPriceWithDefaultsUntilTariffsAreLoaded() {
+        var registry = new TariffRegistry(TariffSchedule.defaults(), clock);
+
+        assertEquals(3.5, registry.calculatorFor(MovieType.REGULAR).calculatePrice(3));
+    }
+
+    @Test
+    @DisplayName("Should apply reloaded tariffs to next lookup")
+    void shouldApplyReloadedTariffsToNextLookup(@TempDir Path directory) throws IOException {
+        var registry = new TariffRegistry(TariffSchedule.defaults(), clock);
+        var before = registry.calculatorFor(MovieType.NEW_RELEASE);
+
+        registry.reload(TariffScheduleTest.write(directory, TariffScheduleTest.TARIFFS));
+
+        assertEquals(6.0, before.calculatePrice(2));
+        assertEquals(6.0, registry.calculatorFor(MovieType.NEW_RELEASE).calculatePrice(2));
+    }
+
+    @Test
+    @DisplayName("Should switch to new version when it becomes effective")
+    void shouldSwitchToNewVersionWhenItBecomesEffective(@TempDir Path directory) throws IOException {
+        var registry = new TariffRegistry(TariffSchedule.load(TariffScheduleTest.write(directory, TariffScheduleTest.TARIFFS)), clock);
+        assertEquals(2.0, registry.snapshot().calculatorFor(MovieType.REGULAR).calculatePrice(1));
+
+        clock.advance(Duration.ofHours(12));
+
+        assertEquals(2.5, registry.snapshot().calculatorFor(MovieType.REGULAR).calculatePrice(1));
+    }
+
+    @Test
+    @DisplayName("Should switch to new version on schedule without taking snapshot")
+    void shouldSwitchToNewVersionOnScheduleWithoutTakingSnapshot(@TempDir Path directory) throws Exception {
+        var beforeChange = Instant.parse("2024-06-30T23:59:59.900Z");
+        var offsetClock = Clock.offset(Clock.systemUTC(), Duration.between(Instant.now(), beforeChange));
+        var registry = new TariffRegistry(TariffSchedule.load(TariffScheduleTest.write(directory, TariffScheduleTest.TARIFFS)), offsetClock);
+        assertEquals(2.0, registry.calculatorFor(MovieType.REGULAR).calculatePrice(1));
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (registry.calculatorFor(MovieType.REGULAR).calculatePrice(1) != 2.5 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(2.5, registry.calculatorFor(MovieType.REGULAR).calculatePrice(1));
+    }
+
+    @Test
+    @DisplayName("Should price whole snapshot with one version")
+    void shouldPriceWholeSnapshotWithOneVersion() {
+        var registry = new TariffRegistry(TariffSchedule.defaults(), clock);
+        var snapshot = registry.snapshot();
+
+        registry.publish(LocalDate.parse("2024-06-01"), Map.of(
+            MovieType.REGULAR, new Tariff(5, 1, 0, Tariff.NO_BONUS_POINTS),
+            MovieType.NEW_RELEASE, new Tariff(5, 1, 0, 1),
+            MovieType.CHILDREN, new Tariff(5, 1, 0, Tariff.NO_BONUS_POINTS)));
+
+        assertEquals(2.0, snapshot.calculatorFor(MovieType.REGULAR).calculatePrice(1));
+        assertNotEquals(snapshot.version(), registry.snapshot().version());
+    }
+
+    @Test
+    @DisplayName("Should keep previous tariffs when replacement has no version effective today")
+    void shouldKeepPreviousTariffsWhenReplacementHasNoVersionEffectiveToday(@TempDir Path directory) throws IOException {
+        var registry = new TariffRegistry(TariffSchedule.defaults(), clock);
+        var previous = registry.current();
+        var snapshot = registry.snapshot();
+        var future = TariffSchedule.load(TariffScheduleTest.write(directory, TariffScheduleTest.TARIFFS.replace("2024-01-01", "2025-01-01")));
+
+        assertThrows(IllegalStateException.class, () -> registry.replace(future));
+
+        assertSame(previous, registry.current());
+        assertSame(snapshot, registry.snapshot());
+        assertEquals(2.0, registry.calculatorFor(MovieType.REGULAR, LocalDate.parse("2024-06-30")).calculatePrice(1));
+    }
+
+    @Test
+    @DisplayName("Should reject reload without version effective today")
+    void shouldRejectReloadWithoutVersionEffectiveToday(@TempDir Path directory) throws IOException {
+        var registry = new TariffRegistry(TariffSchedule.defaults(), clock);
+        var previous = registry.current();
+        var file = TariffScheduleTest.write(directory, TariffScheduleTest.TARIFFS.replace("2024-01-01", "2025-01-01"));
+
+        assertThrows(IllegalArgumentException.class, () -> registry.reload(file));
+
+        assertSame(previous, registry.current());
+    }
+
+    @Test
+    @DisplayName("Should publish new version copy on write")
+    void shouldPublishNewVersionCopyOnWrite() {
+        var registry = new TariffRegistry(TariffSchedule.defaults(), clock);
+        var previous = registry.current();
+
+        registry.publish(LocalDate.parse("2024-06-01"), Map.of(
+            MovieType.REGULAR, new Tariff(5, 1, 0, Tariff.NO_BONUS_POINTS),
+            MovieType.NEW_RELEASE, new Tariff(5, 1, 0, 1),
+            MovieType.CHILDREN, new Tariff(5, 1, 0, Tariff.NO_BONUS_POINTS)));
+
+        assertEquals(6.0, registry.calculatorFor(MovieType.REGULAR).calculatePrice(1));
+        assertEquals(2.0, previous.calculatorFor(MovieType.REGULAR, LocalDate.parse("2024-06-30")).calculatePrice(1));
+    }
+
+    @Test
+    @DisplayName("Should price rentals with reloaded shared tariffs")
+    void shouldPriceRentalsWithReloadedSharedTariffs(@TempDir Path directory) throws IOException {
+        var shared = TariffRegistry.shared();
+        var previous = shared.current();
+        var rental = new Rental(new Movie("Matrix", MovieType.REGULAR), 1);
+        try {
+            shared.replace(TariffSchedule.defaults().withVersion(LocalDate.MIN.plusDays(1), Map.of(
+                MovieType.REGULAR, new Tariff(7, 1, 0, Tariff.NO_BONUS_POINTS),
+                MovieType.NEW_RELEASE, new Tariff(7, 1, 0, 1),
+                MovieType.CHILDREN, new Tariff(7, 1, 0, Tariff.NO_BONUS_POINTS))));
+
+            assertEquals(8.0, rental.calculatePrice());
+        } finally {
+            shared.replace(previous);
+        }
+        assertEquals(2.0, rental.calculatePrice());
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
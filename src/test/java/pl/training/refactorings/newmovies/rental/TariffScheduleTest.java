@@ -0,0 +1,85 @@
+package pl.training.refactorings.newmovies.rental;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.training.refactorings.newmovies.MovieType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TariffScheduleTest {
+
+    static final String TARIFFS = """
+        # effectiveFrom,type,basePrice,extraDayPrice,freeDays,bonusPointThreshold
+        2024-01-01,REGULAR,2.0,1.5,2,2147483647
+        2024-01-01,NEW_RELEASE,0,3.0,0,1
+        2024-01-01,CHILDREN,1.5,1.5,3,2147483647
+
+        2024-07-01, REGULAR, 2.5, 2.0, 2, 2147483647
+        2024-07-01, NEW_RELEASE, 1.0, 3.5, 0, 2
+        2024-07-01, CHILDREN, 1.0, 1.0, 3, 2147483647
+        """;
+
+    @Test
+    @DisplayName("Should load tariff versions from file")
+    void shouldLoadTariffVersionsFromFile(@TempDir Path directory) throws IOException {
+        var schedule = TariffSchedule.load(write(directory, TARIFFS));
+
+        assertEquals(new Tariff(2.0, 1.5, 2, Tariff.NO_BONUS_POINTS),
+            schedule.calculatorFor(MovieType.REGULAR, LocalDate.parse("2024-03-01")));
+        assertEquals(new Tariff(1.0, 3.5, 0, 2),
+            schedule.calculatorFor(MovieType.NEW_RELEASE, LocalDate.parse("2024-08-01")));
+    }
+
+    @Test
+    @DisplayName("Should select version effective on given date")
+    void shouldSelectVersionEffectiveOnGivenDate(@TempDir Path directory) throws IOException {
+        var schedule = TariffSchedule.load(write(directory, TARIFFS));
+
+        assertEquals(2.0, schedule.calculatorFor(MovieType.REGULAR, LocalDate.parse("2024-06-30")).calculatePrice(1));
+        assertEquals(2.5, schedule.calculatorFor(MovieType.REGULAR, LocalDate.parse("2024-07-01")).calculatePrice(1));
+        assertEquals(2.5, schedule.calculatorFor(MovieType.REGULAR, LocalDate.parse("2030-01-01")).calculatePrice(1));
+        assertThrows(IllegalStateException.class,
+            () -> schedule.calculatorFor(MovieType.REGULAR, LocalDate.parse("2023-12-31")));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed tariff line")
+    void shouldRejectMalformedTariffLine(@TempDir Path directory) throws IOException {
+        var file = write(directory, "2024-01-01,REGULAR,2.0,1.5\n");
+
+        assertThrows(IllegalArgumentException.class, () -> TariffSchedule.load(file));
+    }
+
+    @Test
+    @DisplayName("Should reject version without tariff for every movie type")
+    void shouldRejectVersionWithoutTariffForEveryMovieType(@TempDir Path directory) throws IOException {
+        var file = write(directory, "2024-01-01,REGULAR,2.0,1.5,2,2147483647\n");
+
+        assertThrows(IllegalArgumentException.class, () -> TariffSchedule.load(file));
+    }
+
+    @Test
+    @DisplayName("Should price defaults like built-in calculators")
+    void shouldPriceDefaultsLikeBuiltInCalculators() {
+        var schedule = TariffSchedule.defaults();
+
+        for (int days = -3; days < 30; days++) {
+            assertEquals(new RegularRentalCalculator().calculatePrice(days),
+                schedule.calculatorFor(MovieType.REGULAR, LocalDate.now()).calculatePrice(days));
+            assertEquals(new NewReleaseRentalCalculator().calculatePrice(days),
+                schedule.calculatorFor(MovieType.NEW_RELEASE, LocalDate.now()).calculatePrice(days));
+            assertEquals(new ChildrenRentalCalculator().calculatePrice(days),
+                schedule.calculatorFor(MovieType.CHILDREN, LocalDate.now()).calculatePrice(days));
+        }
+    }
+
+    static Path write(Path directory, String tariffs) throws IOException {
+        return Files.writeString(directory.resolve("tariffs.csv"), tariffs);
+    }
+}
@@ -0,0 +1,85 @@
+package pl.training.refactorings.shop;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerTest {
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = new Customer(
+            "John Doe", "john@example.com", "555-1234",
+            "123 Main St", "New York", "NY", "10001",
+            500, true
+        );
+    }
+
+    @Nested
+    @DisplayName("getDisplayName Tests")
+    class GetDisplayNameTests {
+
+        @ParameterizedTest
+        @ValueSource(strings = {"John Doe", "John Michael Doe", "John  Doe", "John", "John ", " John", "", "   ", "John Doe  "})
+        @DisplayName("Should join first and last part of name like split does")
+        void shouldJoinFirstAndLastPartOfNameLikeSplitDoes(String name) {
+            customer.name = name;
+            String[] nameParts = name.split(" ");
+            String expected = nameParts.length > 1 ? nameParts[0] + " " + nameParts[nameParts.length - 1] : name;
+
+            assertEquals(expected, customer.getDisplayName());
+        }
+
+        @Test
+        @DisplayName("Should reuse display name between calls")
+        void shouldReuseDisplayNameBetweenCalls() {
+            customer.name = "John Michael Doe";
+
+            assertSame(customer.getDisplayName(), customer.getDisplayName());
+        }
+
+        @Test
+        @DisplayName("Should rebuild display name after name change")
+        void shouldRebuildDisplayNameAfterNameChange() {
+            customer.getDisplayName();
+            customer.name = "Jane Smith";
+
+            assertEquals("Jane Smith", customer.getDisplayName());
+        }
+    }
+
+    @Nested
+    @DisplayName("getFormattedAddress Tests")
+    class GetFormattedAddressTests {
+
+        @Test
+        @DisplayName("Should format address")
+        void shouldFormatAddress() {
+            assertEquals("123 Main St\nNew York, NY 10001", customer.getFormattedAddress());
+        }
+
+        @Test
+        @DisplayName("Should reuse formatted address between calls")
+        void shouldReuseFormattedAddressBetweenCalls() {
+            assertSame(customer.getFormattedAddress(), customer.getFormattedAddress());
+        }
+
+        @Test
+        @DisplayName("Should rebuild formatted address after any field change")
+        void shouldRebuildFormattedAddressAfterAnyFieldChange() {
+            customer.getFormattedAddress();
+            customer.zip = "10002";
+            assertEquals("123 Main St\nNew York, NY 10002", customer.getFormattedAddress());
+
+            customer.city = "Albany";
+            assertEquals("123 Main St\nAlbany, NY 10002", customer.getFormattedAddress());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package pl.training.refactorings.shop;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderAdmissionControllerTest {
+
+    private static final long MILLISECOND = 1_000_000;
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private OrderAdmissionController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new OrderAdmissionController(5, 1_000, 2, 100, nanoTime::get);
+    }
+
+    @Nested
+    @DisplayName("tryAdmit Tests")
+    class TryAdmitTests {
+
+        @Test
+        @DisplayName("Should admit orders up to customer burst")
+        void shouldAdmitOrdersUpToCustomerBurst() {
+            assertTrue(controller.tryAdmit("John Doe"));
+            assertTrue(controller.tryAdmit("John Doe"));
+            assertFalse(controller.tryAdmit("John Doe"));
+        }
+
+        @Test
+        @DisplayName("Should not let one customer use another customer quota")
+        void shouldNotLetOneCustomerUseAnotherCustomerQuota() {
+            controller.tryAdmit("John Doe");
+            controller.tryAdmit("John Doe");
+            controller.tryAdmit("John Doe");
+
+            assertTrue(controller.tryAdmit("Jane Smith"));
+        }
+
+        @Test
+        @DisplayName("Should refill customer bucket over time")
+        void shouldRefillCustomerBucketOverTime() {
+            controller.tryAdmit("John Doe");
+            controller.tryAdmit("John Doe");
+
+            nanoTime.addAndGet(10 * MILLISECOND);
+
+            assertTrue(controller.tryAdmit("John Doe"));
+            assertFalse(controller.tryAdmit("John Doe"));
+        }
+
+        @Test
+        @DisplayName("Should reject orders over global quota")
+        void shouldRejectOrdersOverGlobalQuota() {
+            for (int customer = 0; customer < 5; customer++) {
+                assertTrue(controller.tryAdmit("Customer " + customer));
+            }
+
+            assertFalse(controller.tryAdmit("Customer 5"));
+        }
+
+        @Test
+        @DisplayName("Should give back customer token when global quota is exceeded")
+        void shouldGiveBackCustomerTokenWhenGlobalQuotaIsExceeded() {
+            for (int customer = 0; customer < 5; customer++) {
+                controller.tryAdmit("Customer " + customer);
+            }
+            controller.tryAdmit("John Doe");
+
+            nanoTime.addAndGet(2 * MILLISECOND);
+
+            assertTrue(controller.tryAdmit("John Doe"));
+            assertTrue(controller.tryAdmit("John Doe"));
+        }
+
+        @Test
+        @DisplayName("Should reject when next token is not available within max wait")
+        void shouldRejectWhenNextTokenIsNotAvailableWithinMaxWait() {
+            controller.tryAdmit("John Doe");
+            controller.tryAdmit("John Doe");
+
+            assertFalse(controller.tryAdmit("John Doe", Duration.ofMillis(5)));
+        }
+
+        @Test
+        @DisplayName("Should reject missing customer name")
+        void shouldRejectMissingCustomerName() {
+            assertThrows(IllegalArgumentException.class, () -> controller.tryAdmit(null));
+        }
+
+        @Test
+        @DisplayName("Should forget customers idle long enough to refill their burst")
+        void shouldForgetCustomersIdleLongEnoughToRefillTheirBurst() {
+            controller.tryAdmit("John Doe");
+            controller.tryAdmit("Jane Smith");
+            assertEquals(2, controller.trackedCustomers());
+
+            nanoTime.addAndGet(20 * MILLISECOND);
+
+            assertEquals(0, controller.trackedCustomers());
+        }
+
+        @Test
+        @DisplayName("Should keep customers with spent tokens")
+        void shouldKeepCustomersWithSpentTokens() {
+            controller.tryAdmit("John Doe");
+            nanoTime.addAndGet(5 * MILLISECOND);
+
+            assertEquals(1, controller.trackedCustomers());
+        }
+
+        @Test
+        @DisplayName("Should bound number of tracked customers")
+        void shouldBoundNumberOfTrackedCustomers() {
+            var bounded = new OrderAdmissionController(1_000, 1_000, 2, 100, 3, nanoTime::get);
+            for (int customer = 0; customer < 10; customer++) {
+                bounded.tryAdmit("Customer " + customer);
+            }
+
+            assertEquals(3, bounded.trackedCustomers());
+        }
+
+        @Test
+        @DisplayName("Should never admit more than burst while idle customer is swept")
+        void shouldNeverAdmitMoreThanBurstWhileIdleCustomerIsSwept() throws InterruptedException {
+            for (int round = 0; round < 200; round++) {
+                var racing = new OrderAdmissionController(1_000, 1_000, 2, 100, nanoTime::get);
+                racing.tryAdmit("John Doe");
+                nanoTime.addAndGet(20 * MILLISECOND);
+                var admitted = new AtomicInteger();
+                var threads = new ArrayList<Thread>();
+                var sweeper = new Thread(() -> {
+                    for (int sweep = 0; sweep < 50; sweep++) {
+                        racing.trackedCustomers();
+                    }
+                });
+                threads.add(sweeper);
+                for (int customer = 0; customer < 8; customer++) {
+                    threads.add(new Thread(() -> {
+                        if (racing.tryAdmit("John Doe")) {
+                            admitted.incrementAndGet();
+                        }
+                    }));
+                }
+                threads.forEach(Thread::start);
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+
+                assertEquals(2, admitted.get());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("OrderIntake Tests")
+    class OrderIntakeTests {
+
+        private final ByteArrayOutputStream outputStreamCaptor = new ByteArrayOutputStream();
+        private final PrintStream originalOut = System.out;
+
+        @Test
+        @DisplayName("Should process admitted orders and reject orders over quota")
+        void shouldProcessAdmittedOrdersAndRejectOrdersOverQuota() {
+            System.setOut(new PrintStream(outputStreamCaptor));
+            try {
+                var processor = new OrderProcessor();
+                var intake = new OrderIntake(processor, controller, Duration.ZERO);
+
+                assertTrue(intake.submitOrder("order-1", "John Doe", "Mouse", 1, 20.0, "cash", null, false, "123 Main St").isPlaced());
+                assertTrue(intake.submitOrder("order-2", "John Doe", "Mouse", 1, 20.0, "cash", null, false, "123 Main St").isPlaced());
+                assertEquals(OrderOutcome.Status.THROTTLED,
+                    intake.submitOrder("order-3", "John Doe", "Mouse", 1, 20.0, "cash", null, false, "123 Main St").status());
+
+                assertEquals(2, processor.orderCount);
+                assertTrue(outputStreamCaptor.toString().contains("Order rejected, quota exceeded for John Doe"));
+            } finally {
+                System.setOut(originalOut);
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject order without customer before admission")
+        void shouldRejectOrderWithoutCustomerBeforeAdmission() {
+            System.setOut(new PrintStream(outputStreamCaptor));
+            try {
+                var intake = new OrderIntake(new OrderProcessor(), controller, Duration.ZERO);
+
+                assertEquals(OrderOutcome.invalid(),
+                    intake.submitOrder("order-1", null, "Mouse", 1, 20.0, "cash", null, false, "123 Main St"));
+                assertEquals(0, controller.trackedCustomers());
+            } finally {
+                System.setOut(originalOut);
+            }
+        }
+    }
+}
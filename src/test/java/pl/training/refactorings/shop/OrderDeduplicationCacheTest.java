@@ -0,0 +1,170 @@
+package pl.training.refactorings.shop;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderDeduplicationCacheTest {
+
+    private final MutableClock clock = new MutableClock();
+    private OrderDeduplicationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new OrderDeduplicationCache(Duration.ofSeconds(10), 3, clock);
+    }
+
+    @Test
+    @DisplayName("Should return stored outcome within window")
+    void shouldReturnStoredOutcomeWithinWindow() {
+        cache.putIfAbsent("order-1", placed(42.0));
+        clock.advance(Duration.ofSeconds(10));
+
+        assertEquals(OrderOutcome.placed(42.0), cache.putIfAbsent("order-1", new CompletableFuture<>()).join());
+    }
+
+    @Test
+    @DisplayName("Should forget outcome after window")
+    void shouldForgetOutcomeAfterWindow() {
+        cache.putIfAbsent("order-1", placed(42.0));
+        clock.advance(Duration.ofSeconds(11));
+
+        assertEquals(0, cache.size());
+        assertNull(cache.putIfAbsent("order-1", new CompletableFuture<>()));
+    }
+
+    @Test
+    @DisplayName("Should keep order in flight after window")
+    void shouldKeepOrderInFlightAfterWindow() {
+        var inFlight = new CompletableFuture<OrderOutcome>();
+        cache.putIfAbsent("order-1", inFlight);
+        clock.advance(Duration.ofSeconds(11));
+
+        assertSame(inFlight, cache.putIfAbsent("order-1", new CompletableFuture<>()));
+    }
+
+    @Test
+    @DisplayName("Should evict oldest entry when capacity is exceeded")
+    void shouldEvictOldestEntryWhenCapacityIsExceeded() {
+        cache.putIfAbsent("order-1", placed(1.0));
+        cache.putIfAbsent("order-2", placed(2.0));
+        cache.putIfAbsent("order-3", placed(3.0));
+        cache.putIfAbsent("order-4", placed(4.0));
+
+        assertEquals(3, cache.size());
+        assertNotNull(cache.putIfAbsent("order-4", new CompletableFuture<>()));
+        assertNull(cache.putIfAbsent("order-1", new CompletableFuture<>()));
+    }
+
+    @Test
+    @DisplayName("Should never evict order in flight to make room")
+    void shouldNeverEvictOrderInFlightToMakeRoom() {
+        var inFlight = new CompletableFuture<OrderOutcome>();
+        cache.putIfAbsent("order-1", inFlight);
+        cache.putIfAbsent("order-2", placed(2.0));
+        cache.putIfAbsent("order-3", placed(3.0));
+        cache.putIfAbsent("order-4", placed(4.0));
+
+        assertEquals(3, cache.size());
+        assertSame(inFlight, cache.putIfAbsent("order-1", new CompletableFuture<>()));
+        assertNull(cache.putIfAbsent("order-2", new CompletableFuture<>()));
+    }
+
+    @Test
+    @DisplayName("Should grow past capacity while every order is in flight")
+    void shouldGrowPastCapacityWhileEveryOrderIsInFlight() {
+        var outcomes = new ArrayList<CompletableFuture<OrderOutcome>>();
+        for (int order = 0; order < 5; order++) {
+            var outcome = new CompletableFuture<OrderOutcome>();
+            outcomes.add(outcome);
+            cache.putIfAbsent("order-" + order, outcome);
+        }
+        assertEquals(5, cache.size());
+
+        outcomes.forEach(outcome -> outcome.complete(OrderOutcome.placed(1.0)));
+        cache.putIfAbsent("order-5", placed(5.0));
+
+        assertEquals(3, cache.size());
+        assertSame(outcomes.get(4), cache.putIfAbsent("order-4", new CompletableFuture<>()));
+    }
+
+    @Test
+    @DisplayName("Should keep original outcome for repeated key")
+    void shouldKeepOriginalOutcomeForRepeatedKey() {
+        var original = placed(1.0);
+        cache.putIfAbsent("order-1", original);
+
+        assertSame(original, cache.putIfAbsent("order-1", placed(2.0)));
+    }
+
+    @Test
+    @DisplayName("Should release reservation of failed order")
+    void shouldReleaseReservationOfFailedOrder() {
+        var failed = new CompletableFuture<OrderOutcome>();
+        cache.putIfAbsent("order-1", failed);
+        cache.remove("order-1", placed(1.0));
+        assertSame(failed, cache.putIfAbsent("order-1", new CompletableFuture<>()));
+
+        cache.remove("order-1", failed);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should size capacity for expected throughput")
+    void shouldSizeCapacityForExpectedThroughput() {
+        assertEquals(3_000_000, OrderDeduplicationCache.forThroughput(50_000, Duration.ofMinutes(1)).getCapacity());
+
+        var cache = OrderDeduplicationCache.forThroughput(2, Duration.ofSeconds(1));
+        cache.putIfAbsent("order-1", placed(1.0));
+        cache.putIfAbsent("order-2", placed(2.0));
+        cache.putIfAbsent("order-3", placed(3.0));
+
+        assertEquals(2, cache.getCapacity());
+        assertEquals(2, cache.size());
+        assertNull(cache.putIfAbsent("order-1", new CompletableFuture<>()));
+    }
+
+    @Test
+    @DisplayName("Should reject non positive window")
+    void shouldRejectNonPositiveWindow() {
+        assertThrows(IllegalArgumentException.class, () -> new OrderDeduplicationCache(Duration.ZERO, 3, clock));
+    }
+
+    private static CompletableFuture<OrderOutcome> placed(double finalPrice) {
+        return CompletableFuture.completedFuture(OrderOutcome.placed(finalPrice));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
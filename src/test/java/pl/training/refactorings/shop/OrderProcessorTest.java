@@ -7,6 +7,10 @@ import org.junit.jupiter.api.Nested;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -648,6 +652,106 @@ class OrderProcessorTest {
             assertEquals("Dr. John Doe", formatted);
             assertFalse(formatted.endsWith(" "));
         }
+
+        @Test
+        @DisplayName("Should share display name built once")
+        void shouldShareDisplayNameBuiltOnce() {
+            String formatted = processor.getCustomerDisplayName("Jane", "Smith", "Ms.");
+
+            assertSame(formatted, new OrderProcessor().getCustomerDisplayName("Jane", "Smith", "Ms."));
+            assertEquals("Jane Smith", processor.getCustomerDisplayName("Jane", "Smith", null));
+        }
+    }
+
+    @Nested
+    @DisplayName("submitOrder Tests")
+    class SubmitOrderTests {
+
+        @Test
+        @DisplayName("Should process order with new idempotency key")
+        void shouldProcessOrderWithNewIdempotencyKey() {
+            var result = processor.submitOrder(
+                "order-1", "John Doe", "Laptop", 1, 150.0,
+                "credit", "john@example.com", true, "123 Main St"
+            );
+
+            assertEquals(OrderOutcome.Status.PLACED, result.status());
+            assertEquals(1, processor.orderCount);
+            assertEquals(processor.total, result.finalPrice(), 0.001);
+        }
+
+        @Test
+        @DisplayName("Should return original result for duplicate submission")
+        void shouldReturnOriginalResultForDuplicateSubmission() {
+            var first = processor.submitOrder(
+                "order-1", "John Doe", "Laptop", 1, 150.0,
+                "credit", "john@example.com", true, "123 Main St"
+            );
+            var second = processor.submitOrder(
+                "order-1", "John Doe", "Laptop", 1, 150.0,
+                "credit", "john@example.com", true, "123 Main St"
+            );
+
+            assertEquals(first, second);
+            assertEquals(1, processor.orderCount);
+            assertEquals(1, processor.orders.size());
+            assertEquals(first.finalPrice(), processor.total, 0.001);
+            assertTrue(outputStreamCaptor.toString().contains("Duplicate order ignored: order-1"));
+        }
+
+        @Test
+        @DisplayName("Should process orders with different idempotency keys separately")
+        void shouldProcessOrdersWithDifferentIdempotencyKeysSeparately() {
+            processor.submitOrder("order-1", "John Doe", "Mouse", 1, 20.0, "cash", null, false, "123 Main St");
+            processor.submitOrder("order-2", "John Doe", "Mouse", 1, 20.0, "cash", null, false, "123 Main St");
+
+            assertEquals(2, processor.orderCount);
+        }
+
+        @Test
+        @DisplayName("Should remember invalid orders")
+        void shouldRememberInvalidOrders() {
+            var rejected = processor.submitOrder("order-1", "John Doe", "Mouse", 0, 20.0, "cash", null, false, "123 Main St");
+            var retried = processor.submitOrder("order-1", "John Doe", "Mouse", 0, 20.0, "cash", null, false, "123 Main St");
+
+            assertEquals(OrderOutcome.invalid(), rejected);
+            assertEquals(rejected, retried);
+            assertEquals(1, outputStreamCaptor.toString().split("Error: Invalid quantity", -1).length - 1);
+        }
+
+        @Test
+        @DisplayName("Should place order once for concurrent retries")
+        void shouldPlaceOrderOnceForConcurrentRetries() throws Exception {
+            var retries = 16;
+            var start = new CountDownLatch(1);
+            var executor = Executors.newFixedThreadPool(retries);
+            try {
+                var outcomes = new ArrayList<Future<OrderOutcome>>();
+                for (int retry = 0; retry < retries; retry++) {
+                    outcomes.add(executor.submit(() -> {
+                        start.await();
+                        return processor.submitOrder("order-1", "John Doe", "Mouse", 1, 20.0, "cash", null, false, "123 Main St");
+                    }));
+                }
+                start.countDown();
+                for (var outcome : outcomes) {
+                    assertEquals(OrderOutcome.Status.PLACED, outcome.get().status());
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertEquals(1, processor.orderCount);
+        }
+
+        @Test
+        @DisplayName("Should process every order without idempotency key")
+        void shouldProcessEveryOrderWithoutIdempotencyKey() {
+            processor.submitOrder(null, "John Doe", "Mouse", 1, 20.0, "cash", null, false, "123 Main St");
+            processor.submitOrder(null, "John Doe", "Mouse", 1, 20.0, "cash", null, false, "123 Main St");
+
+            assertEquals(2, processor.orderCount);
+        }
     }
 
     @org.junit.jupiter.api.AfterEach
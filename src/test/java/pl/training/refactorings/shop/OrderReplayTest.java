@@ -0,0 +1,161 @@
+package pl.training.refactorings.shop;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderReplayTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final OrderReplay replay = new OrderReplay(pool);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should report nothing when archived prices match current pricing")
+    void shouldReportNothingWhenArchivedPricesMatchCurrentPricing() {
+        double currentPrice = OrderProcessor.priceOrder(2, 80.0, true).finalPrice();
+
+        var discrepancies = replay.replay(Stream.of(
+            new ArchivedOrder("ORD001", "John Doe", "Chair", 2, 80.0, true, currentPrice)
+        ));
+
+        assertTrue(discrepancies.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should report orders charged differently than current pricing")
+    void shouldReportOrdersChargedDifferentlyThanCurrentPricing() {
+        var discrepancies = replay.replay(Stream.of(
+            new ArchivedOrder("ORD001", "John Doe", "Chair", 1, 50.0, false, 50.0)
+        ));
+
+        assertEquals(1, discrepancies.size());
+        assertEquals(54.0, discrepancies.get(0).currentPrice(), 0.001);
+        assertEquals(4.0, discrepancies.get(0).difference(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should keep per customer order of discrepancies")
+    void shouldKeepPerCustomerOrderOfDiscrepancies() {
+        var archive = Stream.iterate(0, i -> i + 1).limit(1_000)
+            .map(i -> new ArchivedOrder("ORD" + i, "Customer " + (i % 7), "Mouse", 1, 10.0, false, 0.0));
+
+        var discrepancies = replay.replay(archive);
+
+        assertEquals(1_000, discrepancies.size());
+        for (int customer = 0; customer < 7; customer++) {
+            String customerName = "Customer " + customer;
+            List<Integer> orderNumbers = discrepancies.stream()
+                .filter(discrepancy -> discrepancy.order().customerName().equals(customerName))
+                .map(discrepancy -> Integer.parseInt(discrepancy.order().orderId().substring(3)))
+                .toList();
+            assertEquals(orderNumbers.stream().sorted().toList(), orderNumbers);
+        }
+    }
+
+    @Test
+    @DisplayName("Should replay orders read from archive file")
+    void shouldReplayOrdersReadFromArchiveFile(@TempDir Path directory) throws IOException {
+        Path archive = directory.resolve("orders.csv");
+        Files.writeString(archive, "ORD001,John Doe,Mouse,1,10.0,false,10.8\nORD002,Jane Smith,Mouse,1,10.0,false,9.0\n");
+
+        var discrepancies = replay.replay(archive);
+
+        assertEquals(1, discrepancies.size());
+        assertEquals("ORD002", discrepancies.get(0).order().orderId());
+        var report = new StringWriter();
+        OrderReplay.writeReport(discrepancies, report);
+        assertTrue(report.toString().contains("ORD002,Jane Smith,Mouse,9.0,10.8"));
+    }
+
+    @Test
+    @DisplayName("Should stream report of archive file to writer")
+    void shouldStreamReportOfArchiveFileToWriter(@TempDir Path directory) throws IOException {
+        Path archive = directory.resolve("orders.csv");
+        try (var writer = Files.newBufferedWriter(archive)) {
+            for (int i = 0; i < 20_000; i++) {
+                writer.write("ORD" + i + ",Customer " + (i % 13) + ",Mouse,1,10.0,false," + (i % 2 == 0 ? "10.8" : "9.0") + "\n");
+            }
+        }
+
+        var report = new StringWriter();
+        replay.replay(archive, report);
+
+        var lines = report.toString().split("\n");
+        assertEquals("orderId,customer,product,charged,current,difference", lines[0]);
+        assertEquals(10_001, lines.length);
+        assertEquals(replay.replay(archive).size(), lines.length - 1);
+    }
+
+    @Test
+    @DisplayName("Should keep per customer order of discrepancies read from archive file")
+    void shouldKeepPerCustomerOrderOfDiscrepanciesReadFromArchiveFile(@TempDir Path directory) throws IOException {
+        Path archive = directory.resolve("orders.csv");
+        try (var writer = Files.newBufferedWriter(archive)) {
+            for (int i = 0; i < 20_000; i++) {
+                writer.write("ORD" + i + ",Customer " + (i % 13) + ",Mouse,1,10.0,false,0.0\n");
+            }
+        }
+        var discrepancies = new ArrayList<PriceDiscrepancy>();
+
+        replay.replay(archive, discrepancy -> {
+            synchronized (discrepancies) {
+                discrepancies.add(discrepancy);
+            }
+        });
+
+        assertEquals(20_000, discrepancies.size());
+        for (int customer = 0; customer < 13; customer++) {
+            String customerName = "Customer " + customer;
+            List<Integer> orderNumbers = discrepancies.stream()
+                .filter(discrepancy -> discrepancy.order().customerName().equals(customerName))
+                .map(discrepancy -> Integer.parseInt(discrepancy.order().orderId().substring(3)))
+                .toList();
+            assertEquals(orderNumbers.stream().sorted().toList(), orderNumbers);
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail replay on malformed line without hanging workers")
+    void shouldFailReplayOnMalformedLineWithoutHangingWorkers(@TempDir Path directory) throws IOException {
+        Path archive = directory.resolve("orders.csv");
+        Files.writeString(archive, "ORD001,John Doe,Mouse,1,10.0,false,10.8\nORD002,broken\n");
+
+        var failure = assertThrows(IllegalStateException.class, () -> replay.replay(archive));
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+        assertEquals(1, replay.replay(Stream.of(new ArchivedOrder("ORD003", "Jane Smith", "Mouse", 1, 10.0, false, 9.0))).size());
+    }
+
+    @Test
+    @DisplayName("Should report failure of discrepancy consumer")
+    void shouldReportFailureOfDiscrepancyConsumer() {
+        var archive = Stream.iterate(0, i -> i + 1).limit(50_000)
+            .map(i -> new ArchivedOrder("ORD" + i, "Customer " + i, "Mouse", 1, 10.0, false, 0.0));
+
+        var failure = assertThrows(IllegalStateException.class,
+            () -> replay.replay(archive, discrepancy -> { throw new IllegalArgumentException("sink failed"); }));
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed archive line")
+    void shouldRejectMalformedArchiveLine() {
+        assertThrows(IllegalArgumentException.class, () -> ArchivedOrder.parse("ORD001,John Doe"));
+    }
+}
@@ -0,0 +1,124 @@
+package pl.training.refactorings.shop;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderServerTest {
+
+    private final ByteArrayOutputStream outputStreamCaptor = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final OrderProcessor processor = new OrderProcessor();
+    private OrderServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        System.setOut(new PrintStream(outputStreamCaptor));
+        Product mouse = new Product();
+        mouse.id = "P002";
+        mouse.name = "Mouse";
+        mouse.price = 29.99;
+        mouse.stockQuantity = 200;
+        mouse.category = "Electronics";
+
+        server = ShoppingSystem.startServer(0, processor, List.of(mouse));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Should list catalog")
+    void shouldListCatalog() throws Exception {
+        var response = get("/products");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("Name: Mouse"));
+    }
+
+    @Test
+    @DisplayName("Should return not found for unknown product")
+    void shouldReturnNotFoundForUnknownProduct() throws Exception {
+        assertEquals(404, get("/products?id=P999").statusCode());
+    }
+
+    @Test
+    @DisplayName("Should process posted order once per idempotency key")
+    void shouldProcessPostedOrderOncePerIdempotencyKey() throws Exception {
+        var form = "idempotencyKey=order-1&customer=Jane+Smith&product=P002&quantity=5&payment=debit";
+
+        var first = post("/orders", form);
+        var second = post("/orders", form);
+
+        assertEquals(201, first.statusCode());
+        assertEquals(first.body(), second.body());
+        assertEquals(1, processor.orderCount);
+    }
+
+    @Test
+    @DisplayName("Should process concurrent orders of different customers")
+    void shouldProcessConcurrentOrdersOfDifferentCustomers() throws Exception {
+        var responses = new ArrayList<CompletableFuture<HttpResponse<String>>>();
+        for (int order = 0; order < 100; order++) {
+            var form = "idempotencyKey=order-" + order + "&customer=Customer+" + order + "&product=P002&quantity=1&payment=cash";
+            responses.add(client.sendAsync(postRequest("/orders", form), HttpResponse.BodyHandlers.ofString()));
+        }
+
+        for (var response : responses) {
+            assertEquals(201, response.get().statusCode());
+        }
+        assertEquals(100, processor.orderCount);
+        assertEquals(100, processor.orders.size());
+    }
+
+    @Test
+    @DisplayName("Should reject order with invalid quantity")
+    void shouldRejectOrderWithInvalidQuantity() throws Exception {
+        assertEquals(400, post("/orders", "customer=Jane+Smith&product=P002&quantity=abc").statusCode());
+        assertEquals(400, post("/orders", "customer=Jane+Smith&product=P002&quantity=0").statusCode());
+    }
+
+    @Test
+    @DisplayName("Should reject wrong method")
+    void shouldRejectWrongMethod() throws Exception {
+        assertEquals(405, get("/orders").statusCode());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        var request = HttpRequest.newBuilder(uri(path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String form) throws Exception {
+        return client.send(postRequest(path, form), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest postRequest(String path, String form) {
+        return HttpRequest.newBuilder(uri(path))
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(form))
+            .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+}